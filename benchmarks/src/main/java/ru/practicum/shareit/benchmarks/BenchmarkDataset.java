@@ -0,0 +1,194 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Набор данных для бенчмарков. Размеры задаются системными свойствами shareit.bench.*, а идентификаторы назначаются
+ * по порядку, поэтому бенчмарки обращаются к нагруженным пользователям и предмету по константам. HOT_BOOKER_ID
+ * принадлежат hot-booker-bookings броней, равномерно распределенных по всем, по умолчанию 50 тысяч из 100 тысяч.
+ * Каждый hot-every-й предмет принадлежит HOT_OWNER_ID. Брони одного предмета идут подряд по дням и не пересекаются:
+ * половина в прошлом, одна текущая, остальные в будущем
+ */
+public class BenchmarkDataset {
+    public static final long HOT_BOOKER_ID = 1;
+
+    public static final long HOT_OWNER_ID = 2;
+
+    /**
+     * Предмет HOT_OWNER_ID, доступный для бронирования
+     */
+    public static final long HOT_ITEM_ID = 1;
+
+    private static final String MARKER_EMAIL = "hot-booker@bench.shareit";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] WORDS = {
+            "drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "projector", "guitar", "mixer"
+    };
+
+    private static final BookingStatus[] STATUS_MIX = {
+            BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.APPROVED,
+            BookingStatus.APPROVED, BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.WAITING,
+            BookingStatus.REJECTED, BookingStatus.CANCELED
+    };
+
+    private final int users;
+
+    private final int items;
+
+    private final int bookings;
+
+    private final int requests;
+
+    private final int hotEvery;
+
+    private final int hotBookerEvery;
+
+    public BenchmarkDataset(
+            int users,
+            int itemsPerUser,
+            int bookings,
+            int requests,
+            int hotEvery,
+            int hotBookerBookings
+    ) {
+        if (users < 3) {
+            throw new IllegalArgumentException("Dataset needs at least 3 users");
+        }
+
+        if (hotBookerBookings < 1) {
+            throw new IllegalArgumentException("Hot booker needs at least 1 booking");
+        }
+
+        this.users = users;
+        this.items = users * itemsPerUser;
+        this.bookings = bookings;
+        this.requests = requests;
+        this.hotEvery = hotEvery;
+        this.hotBookerEvery = Math.max(1, bookings / hotBookerBookings);
+    }
+
+    public static BenchmarkDataset fromSystemProperties() {
+        return new BenchmarkDataset(
+                Integer.getInteger("shareit.bench.users", 1000),
+                Integer.getInteger("shareit.bench.items-per-user", 5),
+                Integer.getInteger("shareit.bench.bookings", 100_000),
+                Integer.getInteger("shareit.bench.requests", 2000),
+                Integer.getInteger("shareit.bench.hot-every", 20),
+                Integer.getInteger("shareit.bench.hot-booker-bookings", 50_000)
+        );
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    /**
+     * Заполнить базу, если она пустая. Непустая база используется повторно, если ее заполнили бенчмарки
+     *
+     * @return true, если данные были вставлены
+     * @throws IllegalStateException если в базе есть данные, которые вставили не бенчмарки
+     */
+    public boolean seedIfEmpty(JdbcTemplate jdbcTemplate) {
+        Integer existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+
+        if (existingUsers != null && existingUsers > 0) {
+            Integer markers = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE id = ? AND email = ?", Integer.class, HOT_BOOKER_ID, MARKER_EMAIL
+            );
+
+            if (markers == null || markers == 0) {
+                throw new IllegalStateException("Database is not empty and was not seeded by benchmarks");
+            }
+
+            return false;
+        }
+
+        seed(jdbcTemplate, LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+
+        return true;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate, LocalDateTime anchor) {
+        insert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users, i -> new Object[]{
+                i + 1L,
+                "User " + (i + 1),
+                i == 0 ? MARKER_EMAIL : "user" + (i + 1) + "@bench.shareit"
+        });
+
+        insert(jdbcTemplate, "INSERT INTO item_requests (id, description, requester_id, created) VALUES (?, ?, ?, ?)",
+                requests, i -> new Object[]{
+                        i + 1L,
+                        "Need a " + WORDS[i % WORDS.length],
+                        i % hotEvery == 0 ? HOT_BOOKER_ID : otherUserId(i),
+                        Timestamp.valueOf(anchor.minusMinutes(i))
+                });
+
+        insert(jdbcTemplate, "INSERT INTO items (id, name, description, available, owner_id, request_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", items, i -> new Object[]{
+                        i + 1L,
+                        WORDS[i % WORDS.length] + " " + (i + 1),
+                        "Well kept " + WORDS[i / WORDS.length % WORDS.length] + ", pick up near station " + i % 97,
+                        i % 10 != 9,
+                        i % hotEvery == 0 ? HOT_OWNER_ID : otherUserId(i),
+                        requests > 0 && i % 4 == 3 ? (long) (i / 4 % requests + 1) : null
+                });
+
+        int slotsPerItem = (bookings + items - 1) / items;
+
+        insert(jdbcTemplate, "INSERT INTO bookings (id, start_date_time, end_date_time, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", bookings, i -> {
+                    LocalDateTime start = anchor.plusDays(i / items - slotsPerItem / 2).minusHours(6);
+
+                    return new Object[]{
+                            i + 1L,
+                            Timestamp.valueOf(start),
+                            Timestamp.valueOf(start.plusHours(12)),
+                            i % items + 1L,
+                            i % hotBookerEvery == 0 ? HOT_BOOKER_ID : otherUserId(i * 7919),
+                            STATUS_MIX[i % STATUS_MIX.length].getCode()
+                    };
+                });
+
+        restartSequence(jdbcTemplate, "users_seq", users);
+        restartSequence(jdbcTemplate, "item_requests_seq", requests);
+        restartSequence(jdbcTemplate, "items_seq", items);
+        restartSequence(jdbcTemplate, "bookings_seq", bookings);
+    }
+
+    /**
+     * Пользователь, не являющийся горячим арендатором или владельцем
+     */
+    private long otherUserId(int i) {
+        return 3L + Math.floorMod(i, users - 2);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, int count, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < count; i++) {
+            batch.add(row.apply(i));
+
+            if (batch.size() == BATCH_SIZE || i == count - 1) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Сдвинуть последовательность идентификаторов за вставленные явно строки
+     */
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long count) {
+        jdbcTemplate.execute(String.format("ALTER SEQUENCE %s RESTART WITH %d", sequence, count + 1));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Списки броней нагруженного арендатора и владельца в каждом состоянии: первая страница и глубокая страница по
+ * смещению и по ключу
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingListBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private static final int DEEP_PAGE = 50;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+
+    /**
+     * id последней брони на странице перед DEEP_PAGE. null, если у арендатора меньше DEEP_PAGE страниц
+     */
+    private Long deepPageCursor;
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), Map.of());
+        bookingService = context.getBean(BookingService.class);
+
+        List<Booking> previousPage = bookingService.getAllBookingsCurrentUser(
+                BenchmarkDataset.HOT_BOOKER_ID, state, null, DEEP_PAGE - 1, PAGE_SIZE
+        ).getContent();
+        deepPageCursor = previousPage.isEmpty() ? null : previousPage.get(previousPage.size() - 1).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerFirstPage() {
+        return toDto(bookingService.getAllBookingsCurrentUser(
+                BenchmarkDataset.HOT_BOOKER_ID, state, null, 0, PAGE_SIZE
+        ));
+    }
+
+    @Benchmark
+    public List<BookingDto> ownerFirstPage() {
+        return toDto(bookingService.getAllBookingsForItemsOwner(
+                BenchmarkDataset.HOT_OWNER_ID, state, null, 0, PAGE_SIZE
+        ));
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerDeepPageByOffset() {
+        return toDto(bookingService.getAllBookingsCurrentUser(
+                BenchmarkDataset.HOT_BOOKER_ID, state, null, DEEP_PAGE, PAGE_SIZE
+        ));
+    }
+
+    @Benchmark
+    public List<BookingDto> bookerDeepPageByCursor() {
+        return toDto(bookingService.getAllBookingsCurrentUser(
+                BenchmarkDataset.HOT_BOOKER_ID, state, deepPageCursor, 0, PAGE_SIZE
+        ));
+    }
+
+    private static List<BookingDto> toDto(Slice<Booking> bookings) {
+        return bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+    }
+}
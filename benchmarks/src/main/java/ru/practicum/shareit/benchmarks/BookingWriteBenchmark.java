@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конкурентное бронирование одного предмета 1, 8 и 64 арендаторами. Периоды не пересекаются, поэтому отказы возможны
+ * только из-за исчерпания попыток BookingWriteGuard; они считаются отдельно в счетчике conflicts
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingWriteBenchmark {
+    @Param({"false", "true"})
+    public String itemLocks;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+
+    private final AtomicInteger writers = new AtomicInteger();
+
+    private final AtomicLong slots = new AtomicLong();
+
+    private LocalDateTime firstSlotStart;
+
+    private int users;
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private long bookerId;
+
+        @Setup
+        public void setUp(BookingWriteBenchmark benchmark) {
+            // Горячий владелец не может бронировать свой предмет
+            bookerId = 3 + benchmark.writers.getAndIncrement() % (benchmark.users - 2);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long booked;
+
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            booked = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        BenchmarkDataset dataset = BenchmarkDataset.fromSystemProperties();
+        users = dataset.getUsers();
+        context = ShareItContexts.start(dataset, Map.of("shareit.booking.item-locks.enabled", itemLocks));
+        bookingService = context.getBean(BookingService.class);
+
+        // Новые брони начинаются после всех существующих, в том числе оставшихся от прошлых запусков на Postgres
+        Timestamp lastEnd = context.getBean(JdbcTemplate.class).queryForObject(
+                "SELECT MAX(end_date_time) FROM bookings WHERE item_id = ?",
+                Timestamp.class,
+                BenchmarkDataset.HOT_ITEM_ID
+        );
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+        firstSlotStart = lastEnd == null || lastEnd.toLocalDateTime().isBefore(now)
+                ? now
+                : lastEnd.toLocalDateTime().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Booking oneWriter(Writer writer, Outcome outcome) {
+        return book(writer, outcome);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Booking eightWriters(Writer writer, Outcome outcome) {
+        return book(writer, outcome);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Booking sixtyFourWriters(Writer writer, Outcome outcome) {
+        return book(writer, outcome);
+    }
+
+    private Booking book(Writer writer, Outcome outcome) {
+        LocalDateTime start = firstSlotStart.plusHours(2 * slots.getAndIncrement());
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .itemId(BenchmarkDataset.HOT_ITEM_ID)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+
+        try {
+            Booking booking = bookingService.addBooking(bookingCreateDto, writer.bookerId);
+            outcome.booked++;
+
+            return booking;
+        } catch (OptimisticLockingFailureException e) {
+            outcome.conflicts++;
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Добавление броней и комментариев в 1 и 8 потоков. В отличие от BookingWriteBenchmark каждый поток бронирует свой
+ * предмет, поэтому потоки не спорят за блокировки, и замер показывает стоимость самой записи: получения id и вставки
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EntityWriteBenchmark {
+    private static final int MAX_WRITERS = 8;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingService bookingService;
+
+    private ItemService itemService;
+
+    private final AtomicInteger writers = new AtomicInteger();
+
+    /**
+     * Доступные предметы, которые бронирует HOT_BOOKER_ID
+     */
+    private List<Long> bookableItemIds;
+
+    /**
+     * Завершенные подтвержденные брони доступных предметов: id предмета и арендатора
+     */
+    private List<long[]> pastBookings;
+
+    private LocalDateTime firstSlotStart;
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private long bookableItemId;
+
+        private long[] pastBooking;
+
+        private long slot;
+
+        @Setup
+        public void setUp(EntityWriteBenchmark benchmark) {
+            int writer = benchmark.writers.getAndIncrement();
+            bookableItemId = benchmark.bookableItemIds.get(writer % benchmark.bookableItemIds.size());
+            pastBooking = benchmark.pastBookings.get(writer % benchmark.pastBookings.size());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), Map.of());
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        bookableItemIds = jdbcTemplate.queryForList(
+                "SELECT id FROM items WHERE available = true AND owner_id NOT IN (?, ?) ORDER BY id LIMIT ?",
+                Long.class,
+                BenchmarkDataset.HOT_BOOKER_ID,
+                BenchmarkDataset.HOT_OWNER_ID,
+                MAX_WRITERS
+        );
+        pastBookings = jdbcTemplate.query(
+                "SELECT b.item_id, b.booker_id FROM bookings b JOIN items i ON i.id = b.item_id " +
+                        "WHERE i.available = true AND b.status = ? AND b.end_date_time < ? ORDER BY b.id LIMIT ?",
+                (rs, rowNum) -> new long[]{rs.getLong("item_id"), rs.getLong("booker_id")},
+                BookingStatus.APPROVED.getCode(),
+                Timestamp.valueOf(LocalDateTime.now()),
+                MAX_WRITERS
+        );
+
+        // Новые брони начинаются после всех существующих, в том числе оставшихся от прошлых запусков на Postgres
+        Timestamp lastEnd = jdbcTemplate.queryForObject("SELECT MAX(end_date_time) FROM bookings", Timestamp.class);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+        firstSlotStart = lastEnd == null || lastEnd.toLocalDateTime().isBefore(now)
+                ? now
+                : lastEnd.toLocalDateTime().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Booking addBookingOneWriter(Writer writer) {
+        return book(writer);
+    }
+
+    @Benchmark
+    @Threads(MAX_WRITERS)
+    public Booking addBookingEightWriters(Writer writer) {
+        return book(writer);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Comment addCommentOneWriter(Writer writer) {
+        return comment(writer);
+    }
+
+    @Benchmark
+    @Threads(MAX_WRITERS)
+    public Comment addCommentEightWriters(Writer writer) {
+        return comment(writer);
+    }
+
+    private Booking book(Writer writer) {
+        LocalDateTime start = firstSlotStart.plusHours(2 * writer.slot++);
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .itemId(writer.bookableItemId)
+                .start(start)
+                .end(start.plusHours(1))
+                .build();
+
+        return bookingService.addBooking(bookingCreateDto, BenchmarkDataset.HOT_BOOKER_ID);
+    }
+
+    private Comment comment(Writer writer) {
+        return itemService.addComment(
+                new CommentCreateDto("benchmark comment " + writer.slot++),
+                writer.pastBooking[0],
+                writer.pastBooking[1]
+        );
+    }
+}
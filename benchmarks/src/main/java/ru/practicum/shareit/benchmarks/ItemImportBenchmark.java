@@ -0,0 +1,75 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemImportService;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт ROWS предметов новому владельцу через ItemImportService. Результат - предметы в секунду
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemImportBenchmark {
+    private static final int ROWS = 5000;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemImportService itemImportService;
+
+    private UserService userService;
+
+    private List<ItemCreateDto> rows;
+
+    private long ownerId;
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), Map.of());
+        itemImportService = context.getBean(ItemImportService.class);
+        userService = context.getBean(UserService.class);
+
+        rows = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(ItemCreateDto.builder()
+                    .name("Imported item " + i)
+                    .description("Imported item " + i + " description")
+                    .available(i % 10 != 0)
+                    .build());
+        }
+    }
+
+    /**
+     * Названия уникальны в пределах владельца, поэтому каждый вызов импортирует новому пользователю
+     */
+    @Setup(Level.Invocation)
+    public void newOwner() {
+        String suffix = UUID.randomUUID().toString();
+        ownerId = userService.addUser(new User(null, "Importer " + suffix, suffix + "@import.bench.shareit")).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ItemImportResultDto importItems() {
+        return itemImportService.importItems(ownerId, rows.iterator());
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Предметы владельца с последней и ближайшей бронями. Страница владельца читается как Slice, без запроса COUNT по
+ * всем его предметам, поэтому ее стоимость не растет с их количеством
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemListBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), Map.of());
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemWithBookingDatesDto> ownerItemsPage() {
+        return itemService.getAllByOwnerId(BenchmarkDataset.HOT_OWNER_ID, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ItemWithBookingDatesDto ownerItem() {
+        return itemService.getItemById(BenchmarkDataset.HOT_ITEM_ID, BenchmarkDataset.HOT_OWNER_ID);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск предметов каждым из движков shareit.item.search.engine. Движок trigram работает только на Postgres, его
+ * нужно передать явно: -p engine=like,trigram,memory
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"like", "memory"})
+    public String engine;
+
+    /**
+     * Частое слово, редкая фраза и текст без совпадений
+     */
+    @Param({"drill", "near station 42", "zzz"})
+    public String text;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(
+                BenchmarkDataset.fromSystemProperties(),
+                Map.of("shareit.item.search.engine", engine)
+        );
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> search() {
+        return itemService.searchByNameOrDescription(text, 0, PAGE_SIZE).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность горячих чтений из 8 потоков при прежних настройках логов (профиль dev: SQL в stdout,
+ * TRACE транзакций, каждое сообщение INFO), при настройках по умолчанию и в профиле prod (асинхронный JSON, выборка
+ * сообщений горячего пути). Вывод приложения пишется в файл target/logging-benchmark-{logging}.log, а не в консоль JMH
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"dev", "default", "prod"})
+    public String logging;
+
+    private PrintStream originalOut;
+
+    private PrintStream logFile;
+
+    private ConfigurableApplicationContext context;
+
+    private ItemService itemService;
+
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        originalOut = System.out;
+        logFile = new PrintStream(new FileOutputStream("target/logging-benchmark-" + logging + ".log"), false);
+        System.setOut(logFile);
+
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), properties(logging));
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        System.setOut(originalOut);
+        logFile.close();
+    }
+
+    @Benchmark
+    public ItemWithBookingDatesDto itemForBooker() {
+        return itemService.getItemById(BenchmarkDataset.HOT_ITEM_ID, BenchmarkDataset.HOT_BOOKER_ID);
+    }
+
+    @Benchmark
+    public Slice<Booking> bookerFirstPage() {
+        return bookingService.getAllBookingsCurrentUser(BenchmarkDataset.HOT_BOOKER_ID, "ALL", null, 0, PAGE_SIZE);
+    }
+
+    /**
+     * ShareItContexts глушит логи приложения и транзакций, поэтому уровни каждого варианта задаются явно
+     */
+    private static Map<String, String> properties(String logging) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("logging.level.root", "INFO");
+
+        switch (logging) {
+            case "dev":
+                properties.put("spring.profiles.include", "dev");
+                properties.put("spring.jpa.show-sql", "true");
+                properties.put("logging.level.ru.practicum.shareit", "INFO");
+                properties.put("logging.level.org.springframework.transaction.interceptor", "TRACE");
+                properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "DEBUG");
+                properties.put("shareit.logging.sample-rate", "1");
+                break;
+            case "default":
+                properties.put("logging.level.ru.practicum.shareit", "INFO");
+                properties.put("logging.level.org.springframework.transaction.interceptor", "INFO");
+                properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "INFO");
+                break;
+            case "prod":
+                properties.put("spring.profiles.include", "prod");
+                properties.put("logging.level.root", "WARN");
+                properties.put("logging.level.ru.practicum.shareit", "INFO");
+                properties.put("logging.level.org.springframework.transaction.interceptor", "WARN");
+                properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "WARN");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown logging setup: " + logging);
+        }
+
+        return properties;
+    }
+}
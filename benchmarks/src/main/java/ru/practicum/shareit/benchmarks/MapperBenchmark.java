@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingStatusConverter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Преобразования сущностей в DTO и чтение статуса брони из базы без обращения к базе
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    private final BookingStatusConverter converter = new BookingStatusConverter();
+
+    private Booking booking;
+
+    private Item item;
+
+    private ItemBookingSummary summary;
+
+    private short[] codes;
+
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "Owner", "owner@bench.shareit");
+        User booker = new User(2L, "Booker", "booker@bench.shareit");
+
+        item = new Item(1L, "drill 1", "Well kept drill", true);
+        item.setOwner(owner);
+        booking = new Booking(1L, now.plusDays(1), now.plusDays(2), item, booker, BookingStatus.APPROVED);
+
+        summary = new ItemBookingSummary(item.getId());
+        summary.setLastBookingId(1L);
+        summary.setLastBookerId(booker.getId());
+        summary.setNextBookingId(2L);
+        summary.setNextBookerId(booker.getId());
+
+        codes = new short[BookingStatus.values().length];
+        names = new String[BookingStatus.values().length];
+        for (BookingStatus status : BookingStatus.values()) {
+            codes[status.ordinal()] = status.getCode();
+            names[status.ordinal()] = status.name();
+        }
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemWithBookingDatesDto toItemWithBookingDatesDto() {
+        return ItemMapper.toItemWithBookingDatesDto(item, summary);
+    }
+
+    /**
+     * Чтение статуса по коду, как это делает BookingStatusConverter
+     */
+    @Benchmark
+    public void statusFromCode(Blackhole blackhole) {
+        for (short code : codes) {
+            blackhole.consume(converter.convertToEntityAttribute(code));
+        }
+    }
+
+    /**
+     * Прежнее чтение статуса по строке перебором values(), для сравнения со statusFromCode
+     */
+    @Benchmark
+    public void statusFromNameByScan(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(Stream.of(BookingStatus.values())
+                    .filter(status -> status.name().equals(name))
+                    .findFirst()
+                    .orElseThrow(IllegalArgumentException::new));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.requests.RequestService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.dto.ItemRequestWithResponsesDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы нагруженного пользователя с ответами и общая лента запросов
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+
+    private RequestService requestService;
+
+    @Setup
+    public void setUp() {
+        context = ShareItContexts.start(BenchmarkDataset.fromSystemProperties(), Map.of());
+        requestService = context.getBean(RequestService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemRequestWithResponsesDto> ownRequestsWithResponses() {
+        return requestService.getAllItemRequestsWithResponsesCurrentUser(BenchmarkDataset.HOT_BOOKER_ID, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> allRequestsPage() {
+        return requestService.getAllItemRequests(0, PAGE_SIZE);
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запуск контекста приложения без веб-сервера против H2 в памяти или локального Postgres. База выбирается свойством
+ * shareit.bench.db, адрес Postgres задается свойством shareit.bench.postgres.url
+ */
+public final class ShareItContexts {
+    private static boolean seeded;
+
+    private ShareItContexts() {
+    }
+
+    /**
+     * Заполнить базу набором данных, если это еще не сделано в этой JVM, и запустить контекст
+     *
+     * @param dataset    набор данных
+     * @param properties свойства приложения, которые нужно переопределить для бенчмарка
+     * @return запущенный контекст. Закрывает его вызывающий
+     */
+    public static synchronized ConfigurableApplicationContext start(
+            BenchmarkDataset dataset,
+            Map<String, String> properties
+    ) {
+        if (!seeded) {
+            // Индекс поиска в памяти строится при старте, поэтому данные вставляются в отдельном контексте
+            try (ConfigurableApplicationContext context = run(Map.of("shareit.item.search.engine", "like"))) {
+                if (dataset.seedIfEmpty(context.getBean(JdbcTemplate.class))) {
+                    context.getBean(ItemBookingSummaryService.class).refreshOutdated();
+                }
+            }
+            seeded = true;
+        }
+
+        return run(properties);
+    }
+
+    private static ConfigurableApplicationContext run(Map<String, String> properties) {
+        Map<String, String> effective = new LinkedHashMap<>();
+        effective.put("spring.main.banner-mode", "off");
+        effective.put("logging.level.root", "WARN");
+        effective.put("logging.level.ru.practicum.shareit", "WARN");
+        effective.put("logging.level.org.springframework.transaction.interceptor", "WARN");
+        effective.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "WARN");
+        effective.put("shareit.item.booking-summary.refresh.enabled", "false");
+        effective.put("shareit.sql.budget.mode", "off");
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE);
+
+        if ("postgres".equals(System.getProperty("shareit.bench.db", "h2"))) {
+            effective.put("spring.datasource.url",
+                    System.getProperty("shareit.bench.postgres.url", "jdbc:postgresql://localhost:5432/shareit"));
+            effective.put("spring.datasource.username",
+                    System.getProperty("shareit.bench.postgres.user", "shareituser"));
+            effective.put("spring.datasource.password",
+                    System.getProperty("shareit.bench.postgres.password", "secret"));
+            effective.put("spring.datasource.hikari.data-source-properties.reWriteBatchedInserts", "true");
+        } else {
+            // База живет до конца JVM, чтобы пережить закрытие контекста, в котором она заполнялась
+            builder.profiles("ci");
+            effective.put("spring.datasource.url", "jdbc:h2:mem:shareit-bench;DB_CLOSE_DELAY=-1");
+        }
+
+        effective.putAll(properties);
+
+        // Аргументы командной строки старше application.properties, в отличие от свойств по умолчанию
+        List<String> args = new ArrayList<>();
+        effective.forEach((key, value) -> args.add("--" + key + "=" + value));
+
+        return builder.run(args.toArray(new String[0]));
+    }
+}
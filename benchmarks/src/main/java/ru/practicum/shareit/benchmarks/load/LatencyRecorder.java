@@ -0,0 +1,117 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Задержки и исходы запросов по эндпоинтам. Каждый поток пишет в свой экземпляр, после прогона они сливаются
+ */
+final class LatencyRecorder {
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    private volatile boolean recording;
+
+    void startRecording() {
+        recording = true;
+    }
+
+    /**
+     * Учесть запрос
+     *
+     * @param endpoint метод и шаблон пути, например GET /items/{id}
+     * @param nanos    время от отправки запроса до получения ответа
+     * @param status   код ответа или 0, если ответ не получен
+     */
+    void record(String endpoint, long nanos, int status) {
+        if (recording) {
+            samples.computeIfAbsent(endpoint, e -> new Samples()).add(nanos, status);
+        }
+    }
+
+    void mergeInto(Map<String, Samples> target) {
+        samples.forEach((endpoint, endpointSamples) ->
+                target.computeIfAbsent(endpoint, e -> new Samples()).addAll(endpointSamples));
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+
+        private int count;
+
+        private int rejected;
+
+        private int errors;
+
+        private void add(long latency, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latency;
+
+            if (status >= 400 && status < 500) {
+                rejected++;
+            } else if (status < 200 || status >= 500) {
+                errors++;
+            }
+        }
+
+        private void addAll(Samples other) {
+            for (int i = 0; i < other.count; i++) {
+                if (count == nanos.length) {
+                    nanos = Arrays.copyOf(nanos, count * 2);
+                }
+                nanos[count++] = other.nanos[i];
+            }
+            rejected += other.rejected;
+            errors += other.errors;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Ответы 4xx: ожидаемые отказы вроде пересечения броней
+         */
+        int getRejected() {
+            return rejected;
+        }
+
+        /**
+         * Ответы 5xx и запросы без ответа
+         */
+        int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Отсортировать задержки. Вызывается один раз перед чтением перцентилей
+         */
+        void sort() {
+            Arrays.sort(nanos, 0, count);
+        }
+
+        long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+
+            return nanos[Math.min(count - 1, (int) Math.ceil(percent / 100 * count) - 1)];
+        }
+
+        long max() {
+            return count == 0 ? 0 : nanos[count - 1];
+        }
+
+        double mean() {
+            long sum = 0;
+
+            for (int i = 0; i < count; i++) {
+                sum += nanos[i];
+            }
+
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Параметры прогона нагрузки. Передаются аргументами вида key=value, например concurrency=200 duration=120
+ */
+final class LoadSettings {
+    final URI baseUrl;
+
+    final int concurrency;
+
+    final Duration warmup;
+
+    final Duration duration;
+
+    final int users;
+
+    final int itemsPerUser;
+
+    final Path output;
+
+    /**
+     * Шаги контроллеров из аргумента controllers, например controllers=booking,item. По умолчанию все шаги
+     */
+    final List<Scenario> scenarios;
+
+    private LoadSettings(Map<String, String> values) {
+        baseUrl = URI.create(values.getOrDefault("base-url", "http://localhost:8080"));
+        concurrency = Integer.parseInt(values.getOrDefault("concurrency", "32"));
+        warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15")));
+        duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+        users = Integer.parseInt(values.getOrDefault("users", "100"));
+        itemsPerUser = Integer.parseInt(values.getOrDefault("items-per-user", "5"));
+        output = Path.of(values.getOrDefault("output", "target/load-result.json"));
+        scenarios = scenarios(values.getOrDefault("controllers", "user,item,request,booking"));
+    }
+
+    /**
+     * Разобрать аргументы командной строки
+     *
+     * @throws IllegalArgumentException если аргумент не в формате key=value
+     */
+    static LoadSettings parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (separator <= 0) {
+                throw new IllegalArgumentException(String.format("Expected key=value argument, got '%s'", arg));
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadSettings(values);
+    }
+
+    private static List<Scenario> scenarios(String controllers) {
+        Set<String> names = Arrays.stream(controllers.split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        List<Scenario> scenarios = Arrays.stream(Scenario.values())
+                .filter(scenario -> names.contains(scenario.controller))
+                .collect(Collectors.toList());
+
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException(String.format("No scenarios for controllers '%s'", controllers));
+        }
+
+        return scenarios;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("baseUrl=%s concurrency=%d warmup=%ds duration=%ds users=%d itemsPerUser=%d scenarios=%s",
+                baseUrl, concurrency, warmup.toSeconds(), duration.toSeconds(), users, itemsPerUser, scenarios);
+    }
+}
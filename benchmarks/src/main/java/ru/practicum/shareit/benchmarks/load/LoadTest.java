@@ -0,0 +1,148 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон запущенного приложения по шагам postman/sprint.json. Закрытая модель: каждый из concurrency
+ * клиентов отправляет следующий запрос сразу после ответа на предыдущий. Клиенты работают в виртуальных потоках,
+ * поэтому тысячи клиентов не упираются в потоки самого прогона. По окончании печатает и сохраняет в JSON
+ * p50/p95/p99 задержки и пропускную способность по каждому эндпоинту
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        LoadSettings settings = LoadSettings.parse(args);
+        ShareItClient client = new ShareItClient(settings.baseUrl);
+        Workload workload = new Workload();
+
+        System.out.printf("Load test: %s%n", settings);
+        seed(client, workload, settings);
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        long measureFrom = System.nanoTime() + settings.warmup.toNanos();
+        long deadline = measureFrom + settings.duration.toNanos();
+
+        for (int i = 0; i < settings.concurrency; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+
+            clients.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                boolean warm = false;
+
+                while (System.nanoTime() < deadline) {
+                    if (!warm && System.nanoTime() >= measureFrom) {
+                        recorder.startRecording();
+                        warm = true;
+                    }
+                    Scenario.pick(settings.scenarios, random).run(client, workload, recorder, random);
+                }
+            });
+        }
+
+        clients.shutdown();
+        if (!clients.awaitTermination(settings.warmup.plus(settings.duration).toSeconds() + 60, TimeUnit.SECONDS)) {
+            clients.shutdownNow();
+        }
+
+        Map<String, LatencyRecorder.Samples> samples = new TreeMap<>();
+        recorders.forEach(recorder -> recorder.mergeInto(samples));
+        report(settings, samples);
+    }
+
+    /**
+     * Создать пользователей и их предметы, с которыми начинается прогон. Эти запросы в отчет не попадают
+     */
+    private static void seed(ShareItClient client, Workload workload, LoadSettings settings) {
+        LatencyRecorder ignored = new LatencyRecorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < settings.users; i++) {
+            Long userId = Scenario.createUser(client, workload, ignored);
+
+            if (userId == null) {
+                throw new IllegalStateException("Could not create users, is the application running at "
+                        + settings.baseUrl + "?");
+            }
+
+            for (int j = 0; j < settings.itemsPerUser; j++) {
+                Scenario.createItem(client, workload, ignored, random, userId);
+            }
+        }
+
+        System.out.printf("Seeded %d users and %d items%n", workload.users.size(), workload.items.size());
+    }
+
+    private static void report(LoadSettings settings, Map<String, LatencyRecorder.Samples> samples)
+            throws IOException {
+        double seconds = settings.duration.toMillis() / 1000.0;
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("timestamp", Instant.now().toString());
+        result.put("baseUrl", settings.baseUrl.toString());
+        result.put("concurrency", settings.concurrency);
+        result.put("scenarios", settings.scenarios.toString());
+        result.put("durationSeconds", settings.duration.toSeconds());
+        ArrayNode endpoints = result.putArray("endpoints");
+
+        System.out.printf("%-26s %9s %9s %7s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "4xx", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+
+        long total = 0;
+        for (Map.Entry<String, LatencyRecorder.Samples> entry : samples.entrySet()) {
+            LatencyRecorder.Samples endpointSamples = entry.getValue();
+            endpointSamples.sort();
+            total += endpointSamples.getCount();
+
+            ObjectNode endpoint = endpoints.addObject();
+            endpoint.put("endpoint", entry.getKey());
+            endpoint.put("requests", endpointSamples.getCount());
+            endpoint.put("throughput", endpointSamples.getCount() / seconds);
+            endpoint.put("rejected", endpointSamples.getRejected());
+            endpoint.put("errors", endpointSamples.getErrors());
+            endpoint.put("meanMs", endpointSamples.mean() / 1e6);
+            endpoint.put("p50Ms", endpointSamples.percentile(50) / 1e6);
+            endpoint.put("p95Ms", endpointSamples.percentile(95) / 1e6);
+            endpoint.put("p99Ms", endpointSamples.percentile(99) / 1e6);
+            endpoint.put("maxMs", endpointSamples.max() / 1e6);
+
+            System.out.printf("%-26s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    endpointSamples.getCount(),
+                    endpointSamples.getCount() / seconds,
+                    endpointSamples.getRejected(),
+                    endpointSamples.getErrors(),
+                    endpointSamples.percentile(50) / 1e6,
+                    endpointSamples.percentile(95) / 1e6,
+                    endpointSamples.percentile(99) / 1e6,
+                    endpointSamples.max() / 1e6);
+        }
+
+        result.put("requests", total);
+        result.put("throughput", total / seconds);
+        System.out.printf("Total: %d requests, %.1f req/s%n", total, total / seconds);
+
+        if (settings.output.getParent() != null) {
+            Files.createDirectories(settings.output.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.output.toFile(), result);
+        System.out.printf("Results written to %s%n", settings.output.toAbsolutePath());
+    }
+}
@@ -0,0 +1,296 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Шаги из postman/sprint.json с весами, в которых они выбираются во время прогона, и контроллером, к которому они
+ * обращаются. Шаг, для которого еще нет данных, пропускается без запроса
+ */
+enum Scenario {
+    CREATE_USER(2, "user") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            createUser(client, workload, recorder);
+        }
+    },
+    CREATE_ITEM(4, "item") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Long ownerId = workload.users.random(random);
+
+            if (ownerId != null) {
+                createItem(client, workload, recorder, random, ownerId);
+            }
+        }
+    },
+    CREATE_REQUEST(2, "request") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Long requesterId = workload.users.random(random);
+
+            if (requesterId == null) {
+                return;
+            }
+
+            JsonNode request = client.send(recorder, "POST /requests", "POST", "/requests", requesterId,
+                    Map.of("description", "Need a " + word(random)));
+
+            if (request != null) {
+                workload.requests.add(request.get("id").asLong());
+            }
+        }
+    },
+    BOOK(10, "booking") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Item item = workload.items.random(random);
+            Long bookerId = workload.users.random(random);
+
+            if (item == null || bookerId == null || bookerId == item.ownerId) {
+                return;
+            }
+
+            // Каждая пятая бронь короткая и скоро заканчивается, чтобы арендатор мог оставить комментарий
+            boolean isShort = random.nextInt(5) == 0;
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            LocalDateTime start = isShort
+                    ? now.plusSeconds(2)
+                    : now.plusDays(1 + random.nextInt(3650)).plusHours(random.nextInt(24));
+            LocalDateTime end = isShort ? start.plusSeconds(1) : start.plusHours(1 + random.nextInt(72));
+
+            JsonNode booking = client.send(recorder, "POST /bookings", "POST", "/bookings", bookerId, Map.of(
+                    "itemId", item.id,
+                    "start", start.toString(),
+                    "end", end.toString()
+            ));
+
+            if (booking != null) {
+                Workload.Booking created = new Workload.Booking(booking.get("id").asLong(), item, bookerId, end);
+                workload.bookings.add(created);
+                workload.waitingBookings.add(created);
+
+                if (isShort) {
+                    workload.commentableBookings.add(created);
+                }
+            }
+        }
+    },
+    APPROVE(8, "booking") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Booking booking = workload.waitingBookings.poll();
+
+            if (booking != null) {
+                boolean approved = random.nextInt(10) != 0;
+                client.send(recorder, "PATCH /bookings/{id}", "PATCH",
+                        "/bookings/" + booking.id + "?approved=" + approved, booking.ownerId, null);
+            }
+        }
+    },
+    COMMENT(2, "item") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Booking booking = workload.commentableBookings.poll();
+
+            if (booking == null) {
+                return;
+            }
+
+            if (booking.end.isAfter(LocalDateTime.now())) {
+                workload.commentableBookings.add(booking);
+
+                return;
+            }
+
+            client.send(recorder, "POST /items/{id}/comment", "POST", "/items/" + booking.itemId + "/comment",
+                    booking.bookerId, Map.of("text", "Good " + word(random)));
+        }
+    },
+    GET_ITEM(15, "item") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Item item = workload.items.random(random);
+            Long userId = workload.users.random(random);
+
+            if (item != null && userId != null) {
+                // Половина запросов от владельца, с последней и ближайшей бронями
+                client.send(recorder, "GET /items/{id}", "GET", "/items/" + item.id,
+                        random.nextBoolean() ? item.ownerId : userId, null);
+            }
+        }
+    },
+    OWNER_ITEMS(8, "item") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Item item = workload.items.random(random);
+
+            if (item != null) {
+                client.send(recorder, "GET /items", "GET", "/items?from=0&size=20", item.ownerId, null);
+            }
+        }
+    },
+    SEARCH(15, "item") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Long userId = workload.users.random(random);
+
+            if (userId != null) {
+                client.send(recorder, "GET /items/search", "GET", "/items/search?from=0&size=20&text=" + word(random),
+                        userId, null);
+            }
+        }
+    },
+    GET_BOOKING(8, "booking") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Booking booking = workload.bookings.random(random);
+
+            if (booking != null) {
+                long userId = random.nextBoolean() ? booking.ownerId : booking.bookerId;
+                client.send(recorder, "GET /bookings/{id}", "GET", "/bookings/" + booking.id, userId, null);
+            }
+        }
+    },
+    BOOKER_BOOKINGS(10, "booking") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Booking booking = workload.bookings.random(random);
+
+            if (booking != null) {
+                client.send(recorder, "GET /bookings", "GET", "/bookings?from=0&size=20&state=" + state(random),
+                        booking.bookerId, null);
+            }
+        }
+    },
+    OWNER_BOOKINGS(8, "booking") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Workload.Booking booking = workload.bookings.random(random);
+
+            if (booking != null) {
+                client.send(recorder, "GET /bookings/owner", "GET",
+                        "/bookings/owner?from=0&size=20&state=" + state(random), booking.ownerId, null);
+            }
+        }
+    },
+    OWN_REQUESTS(4, "request") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Long userId = workload.users.random(random);
+
+            if (userId != null) {
+                client.send(recorder, "GET /requests", "GET", "/requests?from=0&size=20", userId, null);
+            }
+        }
+    },
+    ALL_REQUESTS(4, "request") {
+        @Override
+        void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random) {
+            Long userId = workload.users.random(random);
+
+            if (userId != null) {
+                client.send(recorder, "GET /requests/all", "GET", "/requests/all?from=0&size=20", userId, null);
+            }
+        }
+    };
+
+    private static final String[] STATES = {"ALL", "ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+
+    private final int weight;
+
+    /**
+     * Контроллер, к которому обращается шаг: user, item, request или booking
+     */
+    final String controller;
+
+    Scenario(int weight, String controller) {
+        this.weight = weight;
+        this.controller = controller;
+    }
+
+    abstract void run(ShareItClient client, Workload workload, LatencyRecorder recorder, ThreadLocalRandom random);
+
+    /**
+     * Выбрать шаг с учетом весов
+     *
+     * @param scenarios шаги, из которых выбирать
+     */
+    static Scenario pick(List<Scenario> scenarios, ThreadLocalRandom random) {
+        int point = random.nextInt(totalWeight(scenarios));
+
+        for (Scenario scenario : scenarios) {
+            point -= scenario.weight;
+
+            if (point < 0) {
+                return scenario;
+            }
+        }
+
+        throw new IllegalStateException("Scenario weights changed during the run");
+    }
+
+    static Long createUser(ShareItClient client, Workload workload, LatencyRecorder recorder) {
+        long number = workload.sequence.incrementAndGet();
+        JsonNode user = client.send(recorder, "POST /users", "POST", "/users", null, Map.of(
+                "name", "Load user " + number,
+                "email", "load-" + workload.runId + "-" + number + "@shareit.load"
+        ));
+
+        if (user == null) {
+            return null;
+        }
+
+        long userId = user.get("id").asLong();
+        workload.users.add(userId);
+
+        return userId;
+    }
+
+    static void createItem(
+            ShareItClient client,
+            Workload workload,
+            LatencyRecorder recorder,
+            ThreadLocalRandom random,
+            long ownerId
+    ) {
+        long number = workload.sequence.incrementAndGet();
+        Long requestId = random.nextInt(4) == 0 ? workload.requests.random(random) : null;
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", word(random) + " " + workload.runId + "-" + number);
+        body.put("description", "Well kept " + word(random) + ", pick up near station " + random.nextInt(97));
+        body.put("available", true);
+        body.put("requestId", requestId);
+
+        JsonNode item = client.send(recorder, "POST /items", "POST", "/items", ownerId, body);
+
+        if (item != null) {
+            workload.items.add(new Workload.Item(item.get("id").asLong(), ownerId));
+        }
+    }
+
+    private static String word(ThreadLocalRandom random) {
+        return Workload.WORDS[random.nextInt(Workload.WORDS.length)];
+    }
+
+    private static String state(ThreadLocalRandom random) {
+        return STATES[random.nextInt(STATES.length)];
+    }
+
+    private static int totalWeight(List<Scenario> scenarios) {
+        int total = 0;
+
+        for (Scenario scenario : scenarios) {
+            total += scenario.weight;
+        }
+
+        return total;
+    }
+}
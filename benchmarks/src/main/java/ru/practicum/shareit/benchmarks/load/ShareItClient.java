@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HTTP-клиент ShareIt, который замеряет каждый запрос
+ */
+final class ShareItClient {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final URI baseUrl;
+
+    ShareItClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Отправить запрос и записать его задержку
+     *
+     * @param recorder куда записать задержку
+     * @param endpoint имя эндпоинта в отчете
+     * @param method   HTTP-метод
+     * @param path     путь с параметрами запроса
+     * @param userId   значение X-Sharer-User-Id или null
+     * @param body     тело запроса, сериализуется в JSON. null для запросов без тела
+     * @return тело успешного ответа или null, если запрос не удался
+     */
+    JsonNode send(
+            LatencyRecorder recorder,
+            String endpoint,
+            String method,
+            String path,
+            Long userId,
+            Object body
+    ) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(toJson(body)));
+
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+
+        if (userId != null) {
+            request.header(USER_ID_HEADER, userId.toString());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, 0);
+
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            return null;
+        }
+        recorder.record(endpoint, System.nanoTime() - start, response.statusCode());
+
+        if (response.statusCode() / 100 != 2 || response.body().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.time.LocalDateTime;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общие для всех потоков идентификаторы, созданные во время прогона
+ */
+final class Workload {
+    /**
+     * Слова для названий предметов и поисковых запросов
+     */
+    static final String[] WORDS = {
+            "drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "projector", "guitar", "mixer"
+    };
+
+    /**
+     * Префикс email и названий, чтобы повторный прогон против той же базы не упирался в уникальные ограничения
+     */
+    final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    final AtomicLong sequence = new AtomicLong();
+
+    final Pool<Long> users = new Pool<>();
+
+    final Pool<Item> items = new Pool<>();
+
+    final Pool<Long> requests = new Pool<>();
+
+    final Pool<Booking> bookings = new Pool<>();
+
+    /**
+     * Брони, ожидающие решения владельца
+     */
+    final Queue<Booking> waitingBookings = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Короткие брони, после окончания которых арендатор может оставить комментарий
+     */
+    final Queue<Booking> commentableBookings = new ConcurrentLinkedQueue<>();
+
+    static final class Item {
+        final long id;
+
+        final long ownerId;
+
+        Item(long id, long ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+    }
+
+    static final class Booking {
+        final long id;
+
+        final long itemId;
+
+        final long ownerId;
+
+        final long bookerId;
+
+        final LocalDateTime end;
+
+        Booking(long id, Item item, long bookerId, LocalDateTime end) {
+            this.id = id;
+            this.itemId = item.id;
+            this.ownerId = item.ownerId;
+            this.bookerId = bookerId;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Пул, в который только добавляют и из которого выбирают случайный элемент
+     */
+    static final class Pool<T> {
+        private final ConcurrentHashMap<Integer, T> values = new ConcurrentHashMap<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(T value) {
+            values.put(size.getAndIncrement(), value);
+        }
+
+        /**
+         * Случайный элемент или null, если пул пуст или выбранный элемент еще добавляется
+         */
+        T random(Random random) {
+            int currentSize = size.get();
+
+            return currentSize == 0 ? null : values.get(random.nextInt(currentSize));
+        }
+
+        int size() {
+            return size.get();
+        }
+    }
+}
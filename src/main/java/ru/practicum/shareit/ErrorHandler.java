@@ -1,7 +1,12 @@
 package ru.practicum.shareit;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -9,6 +14,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exceptions.*;
+import ru.practicum.shareit.item.exceptions.ItemImportFormatException;
 import ru.practicum.shareit.item.exceptions.ItemIsNotAvailableException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotBookedItemException;
@@ -18,20 +24,76 @@ import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class ErrorHandler {
-    @ExceptionHandler({ConstraintViolationException.class})
+    /**
+     * Счетчик ответов с ошибкой. Тег outcome соответствует статусу ответа, тег exception - классу исключения
+     */
+    public static final String ERRORS_METRIC = "shareit.errors";
+
+    /**
+     * SQLState нарушения ограничения-исключения в Postgres. Имя ограничения для этого кода Hibernate не извлекает,
+     * поэтому пересечение броней ex_booking_item_period распознается по коду
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Нарушение ограничения базы. С id из последовательностей INSERT часто выполняется при фиксации транзакции, и тогда
+     * исключение Hibernate приходит завернутым в DataIntegrityViolationException
+     */
+    @ExceptionHandler({DataIntegrityViolationException.class, ConstraintViolationException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse constraintViolationExceptionHandle(ConstraintViolationException e) {
-        if (e.getConstraintName().equals("uq_user_email")) {
+    public ErrorResponse constraintViolationExceptionHandle(RuntimeException e) {
+        count("conflict", e);
+        ConstraintViolationException violation = findCause(e, ConstraintViolationException.class);
+
+        if (violation != null && "uq_user_email".equals(violation.getConstraintName())) {
             String message = "Email already exist";
             log.warn(message);
 
             return new ErrorResponse(message);
         }
 
+        if (violation != null && EXCLUSION_VIOLATION.equals(violation.getSQLException().getSQLState())) {
+            String message = "Item is already booked for this period";
+            log.warn(message);
+
+            return new ErrorResponse(message);
+        }
+
+        String message = violation != null ? violation.getMessage() : e.getMessage();
+        log.warn(message);
+
+        return new ErrorResponse(message);
+    }
+
+    /**
+     * Сущность не прошла проверку Bean Validation при записи. Если проверка сработала при фиксации транзакции,
+     * исключение приходит причиной TransactionSystemException, и Spring передает сюда саму причину
+     */
+    @ExceptionHandler(javax.validation.ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse entityValidationExceptionHandler(javax.validation.ConstraintViolationException e) {
+        count("bad_request", e);
+        String message = e.getConstraintViolations().stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        log.warn(message);
+
+        return new ErrorResponse(message);
+    }
+
+    @ExceptionHandler({BookingOverlapException.class, OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse conflictExceptionHandler(RuntimeException e) {
+        count("conflict", e);
         log.warn(e.getMessage());
 
         return new ErrorResponse(e.getMessage());
@@ -48,6 +110,7 @@ public class ErrorHandler {
     })
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse notFoundExceptionHandler(RuntimeException e) {
+        count("not_found", e);
         log.warn(e.getMessage());
 
         return new ErrorResponse(e.getMessage());
@@ -56,6 +119,7 @@ public class ErrorHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleValidationException(MethodArgumentNotValidException e) {
+        count("bad_request", e);
         Map<String, String> errors = new HashMap<>();
         StringBuilder stringForLogger = new StringBuilder();
 
@@ -76,15 +140,39 @@ public class ErrorHandler {
             BookingIncorrectStartEndDatesException.class,
             BookingAlreadyApprovedException.class,
             UserIsNotBookedItemException.class,
-            BookingStatusException.class
+            BookingStatusException.class,
+            ItemImportFormatException.class
     })
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse exceptionHandlerByBadeRequest(RuntimeException e) {
+        count("bad_request", e);
         log.warn(e.getMessage());
 
         return new ErrorResponse(e.getMessage());
     }
 
+    /**
+     * @return первое исключение типа type в цепочке причин, начиная с самого e, или null
+     */
+    private static <T extends Throwable> T findCause(Throwable e, Class<T> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Учесть ошибку в метрике ERRORS_METRIC. Без реестра метрик, например в тестах контроллеров, ничего не делает
+     */
+    private void count(String outcome, Exception e) {
+        meterRegistry.ifAvailable(registry -> registry
+                .counter(ERRORS_METRIC, "outcome", outcome, "exception", e.getClass().getSimpleName())
+                .increment());
+    }
+
     private static class ErrorResponse {
         private final String error;
 
@@ -10,13 +10,13 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "bookings")
-@AllArgsConstructor
 @Setter
 @Getter
 @NoArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "start_date_time")
@@ -38,6 +38,18 @@ public class Booking {
     @Column(name = "status")
     private BookingStatus status;
 
+    @Version
+    private Long version;
+
+    public Booking(Long id, LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.booker = booker;
+        this.status = status;
+    }
+
     public Booking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
         this.start = start;
         this.end = end;
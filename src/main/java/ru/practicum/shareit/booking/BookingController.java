@@ -1,15 +1,24 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.user.SharerUserId;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,9 +29,11 @@ public class BookingController {
 
     private final BookingService bookingService;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public BookingDto addBooking(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @Valid @RequestBody BookingCreateDto bookingCreateDto
     ) {
         return BookingMapper.toBookingDto(bookingService.addBooking(bookingCreateDto, userId));
@@ -30,32 +41,51 @@ public class BookingController {
 
     @GetMapping
     public List<BookingDto> getAllBookingsCurrentUser(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) @Min(1) Long after,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
             @RequestParam(defaultValue = "100") @Min(1) Integer size
     ) {
-        return bookingService.getAllBookingsCurrentUser(userId, state, from, size).stream()
+        return bookingService.getAllBookingsCurrentUser(userId, state, after, from, size).stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getAllBookingsForItemsOwner(
-            @RequestHeader("X-Sharer-User-Id") long itemOwnerId,
+            @SharerUserId long itemOwnerId,
             @RequestParam(defaultValue = "All") String state,
+            @RequestParam(required = false) @Min(1) Long after,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
             @RequestParam(defaultValue = "100") @Min(1) Integer size
     ) {
-        return bookingService.getAllBookingsForItemsOwner(itemOwnerId, state, from, size).stream()
+        return bookingService.getAllBookingsForItemsOwner(itemOwnerId, state, after, from, size).stream()
                 .map(BookingMapper::toBookingDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Вся история броней пользователя в формате application/x-ndjson. Брони пишутся в ответ по мере чтения из базы в
+     * отдельном потоке, ошибки до первой строки возвращаются через ErrorHandler
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsCurrentUser(@SharerUserId long userId) {
+        return ndjson(consumer -> bookingService.exportAllByBooker(userId, consumer));
+    }
+
+    /**
+     * Вся история броней предметов владельца в формате application/x-ndjson
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsForItemsOwner(@SharerUserId long itemOwnerId) {
+        return ndjson(consumer -> bookingService.exportAllByItemOwner(itemOwnerId, consumer));
+    }
+
     @GetMapping("/{id}")
     public BookingDto getBookingById(
             @PathVariable long id,
-            @RequestHeader("X-Sharer-User-Id") long userId
+            @SharerUserId long userId
     ) {
         return BookingMapper.toBookingDto(
                 bookingService.getBookingById(id, userId)
@@ -65,7 +95,7 @@ public class BookingController {
     @PatchMapping("/{id}")
     public BookingDto approveBooking(
             @PathVariable long id,
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @RequestParam boolean approved
     ) {
         return BookingMapper.toBookingDto(
@@ -73,4 +103,27 @@ public class BookingController {
         );
     }
 
+    private ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<BookingDto>> export) {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                export.accept(booking -> writeLine(outputStream, booking));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, BookingDto booking) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(booking));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
 }
@@ -1,21 +1,108 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking>,
+        BookingSliceRepository {
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findAllByBookerOrderByIdDesc(User booker);
 
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     @Query("SELECT b FROM Booking b INNER JOIN b.item Item WHERE Item.owner=:owner ORDER BY b.id DESC")
     List<Booking> findAllBookingsByItemOwner(@Param("owner") User owner);
 
+    /**
+     * Сколько строк драйвер читает из курсора за раз при выгрузке истории броней
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Все брони арендатора от новых к старым, читаемые курсором. Поток нужно закрыть внутри транзакции
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b WHERE b.booker = :booker ORDER BY b.id DESC")
+    Stream<Booking> streamAllByBooker(@Param("booker") User booker);
+
+    /**
+     * Все брони предметов владельца от новых к старым, читаемые курсором. Поток нужно закрыть внутри транзакции
+     */
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b INNER JOIN b.item Item WHERE Item.owner = :owner ORDER BY b.id DESC")
+    Stream<Booking> streamAllByItemOwner(@Param("owner") User owner);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
     List<Booking> findAllBookingByItem(Item item);
 
-    List<Booking> findAllBookingByItemId(long itemId);
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findItemIdById(@Param("id") long id);
+
+    /**
+     * Есть ли у предмета бронь в одном из статусов, пересекающаяся с полуинтервалом [start, end)
+     */
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+            long itemId,
+            Collection<BookingStatus> statuses,
+            LocalDateTime end,
+            LocalDateTime start
+    );
+
+    /**
+     * Есть ли у предмета другая бронь в одном из статусов, пересекающаяся с полуинтервалом [start, end). Сама бронь с
+     * идентификатором id не учитывается
+     */
+    boolean existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(
+            long itemId,
+            long id,
+            Collection<BookingStatus> statuses,
+            LocalDateTime end,
+            LocalDateTime start
+    );
+
+    /**
+     * Получить последнюю завершившуюся и ближайшую будущую брони для каждого предмета одним запросом
+     *
+     * @param itemIds идентификаторы предметов
+     * @param now     момент времени, относительно которого определяются прошлая и будущая брони
+     * @return не более двух броней на предмет: с максимальной датой окончания до now и с минимальной датой начала
+     * после now
+     */
+    @Query(value = "SELECT l.* FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date_time DESC, b.id DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.end_date_time < :now" +
+            ") l WHERE l.rn = 1 " +
+            "UNION ALL " +
+            "SELECT n.* FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date_time, b.id) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.start_date_time > :now" +
+            ") n WHERE n.rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextBookingsByItemIds(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now
+    );
 }
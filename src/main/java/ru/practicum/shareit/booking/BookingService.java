@@ -1,39 +1,63 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.exceptions.*;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummaryService;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.exceptions.ItemIsNotAvailableException;
 import ru.practicum.shareit.item.exceptions.UserNotOwnerItemException;
+import ru.practicum.shareit.metrics.MetricsConfiguration;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.BookingSpecs.*;
 import static ru.practicum.shareit.booking.BookingStatus.*;
 
 @Slf4j
 @Service
+@Timed(value = MetricsConfiguration.SERVICE_TIMER, histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class BookingService {
 
+    /**
+     * Статусы броней, которые занимают предмет на свой период
+     */
+    private static final Set<BookingStatus> ACTIVE_STATUSES = Set.of(WAITING, APPROVED);
+
     private final BookingRepository bookingRepository;
     private final UserService userService;
 
     private final ItemService itemService;
 
+    private final BookingWriteGuard bookingWriteGuard;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final EntityManager entityManager;
+
     /**
      * Добавить бронирование
      *
@@ -49,10 +73,18 @@ public class BookingService {
      * @throws BookingIncorrectStartEndDatesException если даты старта и конца бронирования в прошлом времени или дата
      *                                                старта после конца бронирования. Исключение выбрасывается из
      *                                                лямбда-выражения BookingChecker<Booking> bookingDatesIsCorrect
+     * @throws BookingOverlapException                если период пересекается с ожидающей или подтвержденной бронью
+     *                                                этого же предмета. Исключение выбрасывается из метода
+     *                                                checkPeriodIsFree
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Booking addBooking(BookingCreateDto bookingCreateDto, long userId) {
+        return bookingWriteGuard.execute(bookingCreateDto::getItemId, () -> createBooking(bookingCreateDto, userId));
+    }
+
+    private Booking createBooking(BookingCreateDto bookingCreateDto, long userId) {
         User booker = userService.getUserById(userId);
-        Item item = itemService.getItemById(bookingCreateDto.getItemId());
+        Item item = itemService.lockItemById(bookingCreateDto.getItemId());
 
         Booking booking = BookingMapper.toBooking(bookingCreateDto);
         booking.setBooker(booker);
@@ -63,8 +95,12 @@ public class BookingService {
         bookerIsNotOwnerItem.check(booking);
         bookingIsAvailable.check(booking);
         bookingDatesIsCorrect.check(booking);
+        bookingPeriodIsFree.check(booking);
+
+        Booking savedBooking = bookingRepository.save(booking);
+        itemBookingSummaryService.onBookingAdded(savedBooking);
 
-        return bookingRepository.save(booking);
+        return savedBooking;
     }
 
     private final BookingChecker<Booking> bookerIsNotOwnerItem = (booking) -> {
@@ -97,34 +133,52 @@ public class BookingService {
         }
     };
 
+    private final BookingChecker<Booking> bookingPeriodIsFree = this::checkPeriodIsFree;
+
+    /**
+     * Проверить, что период брони не пересекается с ожидающими и подтвержденными бронями того же предмета. Уже
+     * сохраненная бронь не пересекается сама с собой
+     */
+    private void checkPeriodIsFree(Booking booking) {
+        long itemId = booking.getItem().getId();
+        boolean isOverlapped = booking.getId() == null
+                ? bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                        itemId, ACTIVE_STATUSES, booking.getEnd(), booking.getStart()
+                )
+                : bookingRepository.existsByItemIdAndIdNotAndStatusInAndStartBeforeAndEndAfter(
+                        itemId, booking.getId(), ACTIVE_STATUSES, booking.getEnd(), booking.getStart()
+                );
+
+        if (isOverlapped) {
+            throw new BookingOverlapException(
+                    String.format("Item with id:%s is already booked for this period.", booking.getItem().getId())
+            );
+        }
+    }
+
     /**
      * Получить бронирование по id
      *
      * @param bookingId id бронирования
      * @param userId    идентификатор пользователя, который хочет получить информацию о бронировании
      * @return экземпляр класса Booking
-     * @throws BookingNotFound      если бронирование не найдено по переданному id
-     * @throws BookingAccessBlocked если пользователь не является арендатором либо арендодателем вещи. Исключение
-     *                              выбрасывается из лямбда-выражения
-     *                              BookingAccessChecker<Booking, User> accessIsAllowedToBooking
+     * @throws BookingNotFound       если бронирование не найдено по переданному id
+     * @throws UserNotFoundException если пользователь не является участником брони и не найден в системе
+     * @throws BookingAccessBlocked  если пользователь не является арендатором либо арендодателем вещи
      */
     public Booking getBookingById(long bookingId, long userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFound(String.format("Booking with id:%s not found", bookingId)));
 
-        User user = userService.getUserById(userId);
+        if (!isBooker(booking, userId) && !isItemOwner(booking, userId)) {
+            userService.getUserById(userId);
 
-        accessIsAllowedToBooking.check(booking, user);
+            throw new BookingAccessBlocked(String.format("Booking with id:%s access blocked.", booking.getId()));
+        }
 
         return booking;
     }
 
-    private final BookingAccessChecker<Booking, User> accessIsAllowedToBooking = (booking, user) -> {
-        if (!booking.getBooker().equals(user) && !booking.getItem().getOwner().equals(user)) {
-            throw new BookingAccessBlocked(String.format("Booking with id:%s access blocked.", booking.getId()));
-        }
-    };
-
     /**
      * Подтверить бронирование
      *
@@ -134,24 +188,38 @@ public class BookingService {
      * @return бронирование с обновленным полем approved
      * @throws BookingNotFound                 если бронирование не был найден по переданному id
      * @throws UserNotFoundException           если пользователь по параметру userId не найден
-     * @throws UserNotOwnerItemException       если подтвердить бронирование пытается не владелец вещи. Исключение
-     *                                         выбрасывается из лямбда-выражения
-     *                                         BookingAccessChecker<Booking, User> userIsOwnerBooking
+     * @throws UserNotOwnerItemException       если подтвердить бронирование пытается не владелец вещи
      * @throws BookingAlreadyApprovedException если бронь уже подтверждена
+     * @throws BookingOverlapException         если подтверждаемая бронь, например отклоненная ранее, пересекается с
+     *                                         ожидающей или подтвержденной бронью того же предмета
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Booking approveBooking(long bookingId, long userId, boolean isApproved) {
+        return bookingWriteGuard.execute(
+                () -> bookingRepository.findItemIdById(bookingId).orElse(0L),
+                () -> changeBookingStatus(bookingId, userId, isApproved)
+        );
+    }
+
+    private Booking changeBookingStatus(long bookingId, long userId, boolean isApproved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFound(String.format("Booking with id:%s not found", bookingId)));
 
-        User user = userService.getUserById(userId);
+        if (!isItemOwner(booking, userId)) {
+            userService.getUserById(userId);
 
-        userIsOwnerBooking.check(booking, user);
+            throw new UserNotOwnerItemException(String.format("User with id: %s is not owner of item", userId));
+        }
 
         if (booking.getStatus().equals(APPROVED) && isApproved) {
             throw new BookingAlreadyApprovedException(String.format("Booking with id:%s already approved.", bookingId));
         }
 
         if (isApproved) {
+            // Отклоненная бронь не проверялась на пересечение с бронями, созданными после нее. Блокировка предмета
+            // упорядочивает подтверждение с конкурентным созданием броней так же, как в addBooking
+            itemService.lockItemById(booking.getItem().getId());
+            bookingPeriodIsFree.check(booking);
             booking.setStatus(APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
@@ -160,63 +228,72 @@ public class BookingService {
         return booking;
     }
 
-    private final BookingAccessChecker<Booking, User> userIsOwnerBooking = (booking, user) -> {
-        User itemOwner = booking.getItem().getOwner();
+    /**
+     * Страница по убыванию id. При выборке по ключу смещение не нужно: начало страницы задает условие id < after
+     */
+    private static PageRequest pageRequest(Long after, int from, int size) {
+        return PageRequest.of(after == null ? from : 0, size, Sort.by("id").descending());
+    }
 
-        if (!itemOwner.equals(user)) {
-            throw new UserNotOwnerItemException(String.format("User with id: %s is not owner of item", user.getId()));
-        }
-    };
+    /**
+     * Является ли пользователь арендатором. Сравниваются только идентификаторы
+     */
+    private boolean isBooker(Booking booking, long userId) {
+        return booking.getBooker().getId().equals(userId);
+    }
+
+    /**
+     * Является ли пользователь владельцем забронированной вещи. Сравниваются только идентификаторы
+     */
+    private boolean isItemOwner(Booking booking, long userId) {
+        return booking.getItem().getOwner().getId().equals(userId);
+    }
 
-    public List<Booking> getAllBookingsCurrentUser(long userId, String status, int from, int size) {
+    /**
+     * Получить брони арендатора в выбранном состоянии, от новых к старым
+     *
+     * @param userId идентификатор арендатора
+     * @param state  состояние броней
+     * @param after  id брони, после которой начинается страница. Если передан, выборка идет по ключу и from не
+     *               учитывается
+     * @param from   номер страницы
+     * @param size   размер страницы
+     * @return страница броней без подсчета общего количества
+     * @throws BookingStatusException если состояние неизвестно
+     */
+    public Slice<Booking> getAllBookingsCurrentUser(long userId, String state, Long after, int from, int size) {
         User booker = userService.getUserById(userId);
-        List<Booking> bookings = getAllByBooker(booker);
-        BookingStatus bookingStatus = BookingStatus.findByName(status);
+        BookingState bookingState = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.by("id").descending());
+        Specification<Booking> byBooker = hasBooker(booker).and(hasIdLessThan(after));
+        PageRequest pageRequest = pageRequest(after, from, size);
 
-        switch (bookingStatus) {
+        switch (bookingState) {
             case FUTURE:
-                return bookingRepository.findAll(
-                        BookingSpecs
-                                .hasBooker(booker)
+                return bookingRepository.findSlice(
+                        byBooker
                                 .and(hasBookingStatus(APPROVED).or(hasBookingStatus(WAITING)))
                                 .and(BookingSpecs.isBookingStartGreaterThan(now)),
-                        pageRequest).toList();
-
+                        pageRequest);
             case CURRENT:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasBooker(booker)
-                                        .and(hasBookingStatus(APPROVED).or(hasBookingStatus(REJECTED)))
-                                        .and(isBookingStartLessThan(now).and(isBookingEndGreaterThan(now))),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(
+                        byBooker
+                                .and(hasBookingStatus(APPROVED).or(hasBookingStatus(REJECTED)))
+                                .and(isBookingStartLessThan(now).and(isBookingEndGreaterThan(now))),
+                        pageRequest);
             case PAST:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasBooker(booker)
-                                        .and(hasBookingStatus(APPROVED))
-                                        .and(isBookingEndLessThan(now)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(
+                        byBooker
+                                .and(hasBookingStatus(APPROVED))
+                                .and(isBookingEndLessThan(now)),
+                        pageRequest);
             case REJECTED:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasBooker(booker)
-                                        .and(hasBookingStatus(REJECTED)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(byBooker.and(hasBookingStatus(REJECTED)), pageRequest);
             case WAITING:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasBooker(booker)
-                                        .and(hasBookingStatus(WAITING)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(byBooker.and(hasBookingStatus(WAITING)), pageRequest);
         }
 
-        return bookings;
+        return bookingRepository.findSlice(byBooker, pageRequest);
     }
 
     /**
@@ -229,55 +306,57 @@ public class BookingService {
         return bookingRepository.findAllByBookerOrderByIdDesc(booker);
     }
 
-    public List<Booking> getAllBookingsForItemsOwner(long itemOwnerId, String status, int from, int size) {
+    /**
+     * Получить брони предметов владельца в выбранном состоянии, от новых к старым
+     *
+     * @param itemOwnerId идентификатор владельца предметов
+     * @param state       состояние броней
+     * @param after       id брони, после которой начинается страница. Если передан, выборка идет по ключу и from не
+     *                    учитывается
+     * @param from        номер страницы
+     * @param size        размер страницы
+     * @return страница броней без подсчета общего количества
+     * @throws BookingStatusException если состояние неизвестно
+     */
+    public Slice<Booking> getAllBookingsForItemsOwner(
+            long itemOwnerId,
+            String state,
+            Long after,
+            int from,
+            int size
+    ) {
         User itemOwner = userService.getUserById(itemOwnerId);
-        BookingStatus bookingStatus = BookingStatus.findByName(status);
+        BookingState bookingState = BookingState.from(state);
         LocalDateTime now = LocalDateTime.now();
-        PageRequest pageRequest = PageRequest.of(from, size, Sort.by("id").descending());
+        Specification<Booking> byOwner = hasOwnerBookedItem(itemOwner).and(hasIdLessThan(after));
+        PageRequest pageRequest = pageRequest(after, from, size);
 
-        switch (bookingStatus) {
+        switch (bookingState) {
             case FUTURE:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasOwnerBookedItem(itemOwner)
-                                        .and(hasBookingStatus(APPROVED).or(hasBookingStatus(WAITING)))
-                                        .and(BookingSpecs.isBookingStartGreaterThan(now)),
-                                pageRequest)
-                        .toList();
-
+                return bookingRepository.findSlice(
+                        byOwner
+                                .and(hasBookingStatus(APPROVED).or(hasBookingStatus(WAITING)))
+                                .and(BookingSpecs.isBookingStartGreaterThan(now)),
+                        pageRequest);
             case CURRENT:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasOwnerBookedItem(itemOwner)
-                                        .and(hasBookingStatus(APPROVED).or(hasBookingStatus(REJECTED)))
-                                        .and(isBookingStartLessThan(now).and(isBookingEndGreaterThan(now))),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(
+                        byOwner
+                                .and(hasBookingStatus(APPROVED).or(hasBookingStatus(REJECTED)))
+                                .and(isBookingStartLessThan(now).and(isBookingEndGreaterThan(now))),
+                        pageRequest);
             case PAST:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasOwnerBookedItem(itemOwner)
-                                        .and(hasBookingStatus(APPROVED))
-                                        .and(isBookingEndLessThan(now)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(
+                        byOwner
+                                .and(hasBookingStatus(APPROVED))
+                                .and(isBookingEndLessThan(now)),
+                        pageRequest);
             case REJECTED:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasOwnerBookedItem(itemOwner)
-                                        .and(hasBookingStatus(REJECTED)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(byOwner.and(hasBookingStatus(REJECTED)), pageRequest);
             case WAITING:
-                return bookingRepository.findAll(
-                                BookingSpecs
-                                        .hasOwnerBookedItem(itemOwner)
-                                        .and(hasBookingStatus(WAITING)),
-                                pageRequest)
-                        .toList();
+                return bookingRepository.findSlice(byOwner.and(hasBookingStatus(WAITING)), pageRequest);
         }
 
-        return getAllByItemOwnerId(itemOwnerId);
+        return bookingRepository.findSlice(byOwner, pageRequest);
     }
 
     /**
@@ -291,4 +370,53 @@ public class BookingService {
 
         return bookingRepository.findAllBookingsByItemOwner(itemOwner);
     }
+
+    /**
+     * Выгрузить всю историю броней арендатора, от новых к старым
+     *
+     * @param userId   идентификатор арендатора
+     * @param consumer получатель броней, вызывается внутри транзакции по одной брони
+     * @throws UserNotFoundException если пользователь по id не найден
+     */
+    @Transactional(readOnly = true)
+    public void exportAllByBooker(long userId, Consumer<BookingDto> consumer) {
+        User booker = userService.getUserById(userId);
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllByBooker(booker)) {
+            export(bookings, consumer);
+        }
+    }
+
+    /**
+     * Выгрузить всю историю броней предметов владельца, от новых к старым
+     *
+     * @param itemOwnerId идентификатор владельца предметов
+     * @param consumer    получатель броней, вызывается внутри транзакции по одной брони
+     * @throws UserNotFoundException если пользователь по id не найден
+     */
+    @Transactional(readOnly = true)
+    public void exportAllByItemOwner(long itemOwnerId, Consumer<BookingDto> consumer) {
+        User itemOwner = userService.getUserById(itemOwnerId);
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwner(itemOwner)) {
+            export(bookings, consumer);
+        }
+    }
+
+    /**
+     * Брони передаются получателю по мере чтения курсора. После каждой порции из EXPORT_FETCH_SIZE броней контекст
+     * персистентности очищается, поэтому память не зависит от длины истории
+     */
+    private void export(Stream<Booking> bookings, Consumer<BookingDto> consumer) {
+        Iterator<Booking> iterator = bookings.iterator();
+        int exported = 0;
+
+        while (iterator.hasNext()) {
+            consumer.accept(BookingMapper.toBookingDto(iterator.next()));
+
+            if (++exported % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
 }
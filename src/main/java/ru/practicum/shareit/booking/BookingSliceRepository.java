@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface BookingSliceRepository {
+    /**
+     * Выбрать страницу броней без подсчета общего количества. Запрашивается на одну запись больше размера
+     * страницы, по ней определяется наличие следующей страницы
+     *
+     * @param spec     условие выборки
+     * @param pageable номер, размер страницы и сортировка
+     * @return брони страницы и признак наличия следующей
+     */
+    Slice<Booking> findSlice(Specification<Booking> spec, Pageable pageable);
+}
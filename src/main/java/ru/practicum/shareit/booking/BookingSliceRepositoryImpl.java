@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.item.Item_;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Брони выбираются вместе с предметом, его владельцем и арендатором, которых читает BookingMapper
+ */
+public class BookingSliceRepositoryImpl implements BookingSliceRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Booking> findSlice(Specification<Booking> spec, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> query = builder.createQuery(Booking.class);
+        Root<Booking> root = query.from(Booking.class);
+        root.fetch(Booking_.item).fetch(Item_.owner);
+        root.fetch(Booking_.booker);
+
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        int pageSize = pageable.getPageSize();
+        List<Booking> bookings = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageSize == Integer.MAX_VALUE ? pageSize : pageSize + 1)
+                .getResultList();
+
+        boolean hasNext = bookings.size() > pageSize;
+        List<Booking> content = hasNext ? bookings.subList(0, pageSize) : bookings;
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -11,6 +11,13 @@ import java.time.LocalDateTime;
 
 
 public class BookingSpecs {
+    /**
+     * Курсор для постраничного вывода по ключу: брони с id меньше переданного. При null условие не накладывается
+     */
+    public static Specification<Booking> hasIdLessThan(Long id) {
+        return (root, query, builder) -> id == null ? null : builder.lessThan(root.get(Booking_.id), id);
+    }
+
     public static Specification<Booking> hasBookingStatus(BookingStatus status) {
         return (root, query, builder) -> builder.equal(root.get(Booking_.status), status);
     }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.exceptions.BookingStatusException;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Состояние броней в запросе списка. В отличие от BookingStatus не хранится в базе, а задает условие выборки. Имена
+ * COMPLETED, CANCELED и APPROVED из прежних версий API по-прежнему принимаются: COMPLETED выбирает то же, что PAST,
+ * CANCELED - то же, что REJECTED, а APPROVED, как и раньше, все брони
+ */
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    private static final Map<String, BookingState> BY_NAME = new HashMap<>();
+
+    static {
+        for (BookingState state : values()) {
+            BY_NAME.put(state.name(), state);
+        }
+
+        BY_NAME.put("COMPLETED", PAST);
+        BY_NAME.put("CANCELED", REJECTED);
+        BY_NAME.put("APPROVED", ALL);
+    }
+
+    /**
+     * Получить состояние по имени без учета регистра
+     *
+     * @throws BookingStatusException если состояние неизвестно
+     */
+    public static BookingState from(String name) {
+        BookingState state = name == null ? null : BY_NAME.get(name.toUpperCase(Locale.ROOT));
+
+        if (state == null) {
+            throw new BookingStatusException(String.format("Unknown state: %s", name));
+        }
+
+        return state;
+    }
+}
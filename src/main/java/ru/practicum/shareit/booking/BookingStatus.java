@@ -1,35 +1,43 @@
 package ru.practicum.shareit.booking;
 
-import ru.practicum.shareit.booking.exceptions.BookingStatusException;
-
+/**
+ * Статус брони, который хранится в базе в виде кода. Коды записаны в существующих строках, поэтому их нельзя менять
+ * или переиспользовать
+ */
 public enum BookingStatus {
-    CURRENT("CURRENT"),
-    COMPLETED("COMPLETED"),
-    FUTURE("FUTURE"),
-    WAITING("WAITING"),
-    APPROVED("APPROVED"),
-    REJECTED("REJECTED"),
-    CANCELED("CANCELED"),
-    PAST("PAST"),
-    ALL("ALL");
-
-    private final String val;
-
-    BookingStatus(String val) {
-        this.val = val;
+    WAITING(0),
+    APPROVED(1),
+    REJECTED(2),
+    CANCELED(3);
+
+    private static final BookingStatus[] BY_CODE = new BookingStatus[values().length];
+
+    static {
+        for (BookingStatus status : values()) {
+            BY_CODE[status.code] = status;
+        }
     }
 
-    public String getVal() {
-        return val;
+    private final short code;
+
+    BookingStatus(int code) {
+        this.code = (short) code;
     }
 
-    public static BookingStatus findByName(String nameString) {
-        for (BookingStatus status : values()) {
-            if (status.name().equalsIgnoreCase(nameString)) {
-                return status;
-            }
+    public short getCode() {
+        return code;
+    }
+
+    /**
+     * Получить статус по коду из базы
+     *
+     * @throws IllegalArgumentException если код не соответствует ни одному статусу
+     */
+    public static BookingStatus fromCode(short code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException(String.format("Unknown booking status code: %s", code));
         }
 
-        throw new BookingStatusException(String.format("Unknown state: %s", nameString));
+        return BY_CODE[code];
     }
 }
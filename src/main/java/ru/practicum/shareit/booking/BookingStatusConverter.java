@@ -2,28 +2,24 @@ package ru.practicum.shareit.booking;
 
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
-import java.util.stream.Stream;
 
 @Converter(autoApply = true)
-public class BookingStatusConverter implements AttributeConverter<BookingStatus, String> {
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
     @Override
-    public String convertToDatabaseColumn(BookingStatus bookingStatus) {
+    public Short convertToDatabaseColumn(BookingStatus bookingStatus) {
         if (bookingStatus == null) {
             return null;
         }
 
-        return bookingStatus.getVal();
+        return bookingStatus.getCode();
     }
 
     @Override
-    public BookingStatus convertToEntityAttribute(String s) {
-        if (s == null) {
+    public BookingStatus convertToEntityAttribute(Short code) {
+        if (code == null) {
             return null;
         }
 
-        return Stream.of(BookingStatus.values())
-                .filter(bs -> bs.getVal().equals(s))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        return BookingStatus.fromCode(code);
     }
 }
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет изменение броней или забронированного предмета в отдельной транзакции и повторяет его, если транзакция
+ * не прошла проверку версий (OptimisticLockingFailureException). Количество попыток ограничено, после последней
+ * исключение пробрасывается.
+ * <p>
+ * Дополнительно можно включить полосатую блокировку по id предмета: записи одного предмета внутри приложения
+ * выполняются по очереди и не доходят до конфликта в базе. Блокировка действует только в пределах одного экземпляра
+ * приложения, согласованность между экземплярами по-прежнему обеспечивают версии.
+ */
+@Slf4j
+@Component
+public class BookingWriteGuard {
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxAttempts;
+
+    /**
+     * Полосы блокировок; null, если блокировка по предмету выключена
+     */
+    private final ReentrantLock[] itemLocks;
+
+    public BookingWriteGuard(
+            PlatformTransactionManager transactionManager,
+            @Value("${shareit.booking.write.max-attempts:3}") int maxAttempts,
+            @Value("${shareit.booking.item-locks.enabled:false}") boolean itemLocksEnabled,
+            @Value("${shareit.booking.item-locks.stripes:64}") int stripes
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("shareit.booking.write.max-attempts must be positive");
+        }
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.itemLocks = itemLocksEnabled ? createLocks(stripes) : null;
+    }
+
+    /**
+     * Выполнить запись
+     *
+     * @param itemId идентификатор предмета, который затрагивает запись. Вычисляется только при включенной
+     *               блокировке по предмету
+     * @param write  изменение, выполняемое в транзакции
+     * @return результат последней успешной попытки
+     * @throws OptimisticLockingFailureException если все попытки завершились конфликтом версий
+     */
+    public <T> T execute(LongSupplier itemId, Supplier<T> write) {
+        if (itemLocks == null) {
+            return executeWithRetry(write);
+        }
+
+        ReentrantLock lock = itemLocks[stripe(itemId.getAsLong())];
+        lock.lock();
+        try {
+            return executeWithRetry(write);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T executeWithRetry(Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Booking write failed after {} attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+
+                log.debug("Booking write conflict on attempt {} of {}, retrying", attempt, maxAttempts);
+            }
+        }
+    }
+
+    private int stripe(long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= hash >>> 16;
+
+        return (hash & Integer.MAX_VALUE) % itemLocks.length;
+    }
+
+    private static ReentrantLock[] createLocks(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("shareit.booking.item-locks.stripes must be positive");
+        }
+
+        ReentrantLock[] locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        return locks;
+    }
+}
@@ -9,9 +9,11 @@ import java.time.LocalDateTime;
 
 @StaticMetamodel(Booking.class)
 public class Booking_ {
+    public static volatile SingularAttribute<Booking, Long> id;
     public static volatile SingularAttribute<Booking, LocalDateTime> start;
     public static volatile SingularAttribute<Booking, LocalDateTime> end;
     public static volatile SingularAttribute<Booking, BookingStatus> status;
     public static volatile SingularAttribute<Booking, User> booker;
     public static volatile SingularAttribute<Booking, Item> item;
+    public static volatile SingularAttribute<Booking, Long> version;
 }
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.user.SharerUserId;
+import ru.practicum.shareit.user.UserService;
+
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
+
+/**
+ * Списки броней в формате application/x-ndjson: по одной брони в строке, строки отправляются клиенту по мере чтения
+ * из базы. Выбирается по заголовку Accept, остальные запросы обрабатывает BookingController. Пользователь и
+ * состояние проверяются до начала ответа, чтобы ошибки возвращались с обычными кодами статуса
+ */
+@RestController
+@RequestMapping(path = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@ConditionalOnProperty(name = "shareit.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveBookingController {
+
+    private final ReactiveBookingRepository reactiveBookingRepository;
+
+    private final UserService userService;
+
+    @GetMapping
+    public Flux<BookingDto> getAllBookingsCurrentUser(
+            @SharerUserId long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) @Min(1) Long after,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
+    ) {
+        userService.getUserById(userId);
+        BookingState bookingState = BookingState.from(state);
+
+        return reactiveBookingRepository.findByBooker(userId, bookingState, after, from, size, LocalDateTime.now());
+    }
+
+    @GetMapping("/owner")
+    public Flux<BookingDto> getAllBookingsForItemsOwner(
+            @SharerUserId long itemOwnerId,
+            @RequestParam(defaultValue = "All") String state,
+            @RequestParam(required = false) @Min(1) Long after,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
+    ) {
+        userService.getUserById(itemOwnerId);
+        BookingState bookingState = BookingState.from(state);
+
+        return reactiveBookingRepository.findByItemOwner(
+                itemOwnerId, bookingState, after, from, size, LocalDateTime.now()
+        );
+    }
+}
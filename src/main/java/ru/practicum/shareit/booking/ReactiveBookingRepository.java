@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+/**
+ * Списки броней через R2DBC. Строки читаются порциями по FETCH_SIZE и сразу превращаются в BookingDto, без сущностей
+ * и без списка всей страницы. Условия состояний те же, что в BookingService
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveBookingRepository {
+    private static final int FETCH_SIZE = 100;
+
+    private static final String SELECT_BOOKINGS = "SELECT b.id, b.start_date_time, b.end_date_time, b.status, " +
+            "i.id AS item_id, i.name AS item_name, i.description AS item_description, " +
+            "o.id AS owner_id, o.name AS owner_name, " +
+            "u.id AS booker_id, u.name AS booker_name " +
+            "FROM bookings b " +
+            "JOIN items i ON i.id = b.item_id " +
+            "JOIN users o ON o.id = i.owner_id " +
+            "JOIN users u ON u.id = b.booker_id ";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Брони арендатора от новых к старым
+     *
+     * @param after id брони, после которой начинается страница. Если передан, from не учитывается
+     */
+    public Flux<BookingDto> findByBooker(
+            long bookerId,
+            BookingState state,
+            Long after,
+            int from,
+            int size,
+            LocalDateTime now
+    ) {
+        return find("b.booker_id = :userId", bookerId, state, after, from, size, now);
+    }
+
+    /**
+     * Брони предметов владельца от новых к старым
+     *
+     * @param after id брони, после которой начинается страница. Если передан, from не учитывается
+     */
+    public Flux<BookingDto> findByItemOwner(
+            long ownerId,
+            BookingState state,
+            Long after,
+            int from,
+            int size,
+            LocalDateTime now
+    ) {
+        return find("i.owner_id = :userId", ownerId, state, after, from, size, now);
+    }
+
+    private Flux<BookingDto> find(
+            String byUser,
+            long userId,
+            BookingState state,
+            Long after,
+            int from,
+            int size,
+            LocalDateTime now
+    ) {
+        StringBuilder sql = new StringBuilder(SELECT_BOOKINGS).append("WHERE ").append(byUser);
+        String stateCondition = stateCondition(state);
+
+        if (after != null) {
+            sql.append(" AND b.id < :after");
+        }
+        if (stateCondition != null) {
+            sql.append(" AND ").append(stateCondition);
+        }
+        sql.append(" ORDER BY b.id DESC LIMIT :limit OFFSET :offset");
+
+        DatabaseClient.GenericExecuteSpec query = reactiveDatabaseClient.sql(sql.toString())
+                .bind("userId", userId)
+                .bind("limit", size)
+                .bind("offset", after == null ? (long) from * size : 0L);
+
+        if (after != null) {
+            query = query.bind("after", after);
+        }
+        if (stateCondition != null && stateCondition.contains(":now")) {
+            query = query.bind("now", now);
+        }
+
+        return query
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ReactiveBookingRepository::toBookingDto)
+                .all();
+    }
+
+    private static String stateCondition(BookingState state) {
+        switch (state) {
+            case FUTURE:
+                return String.format("b.status IN (%d, %d) AND b.start_date_time > :now",
+                        APPROVED.getCode(), WAITING.getCode());
+            case CURRENT:
+                return String.format("b.status IN (%d, %d) AND b.start_date_time < :now AND b.end_date_time > :now",
+                        APPROVED.getCode(), REJECTED.getCode());
+            case PAST:
+                return String.format("b.status = %d AND b.end_date_time < :now", APPROVED.getCode());
+            case REJECTED:
+                return String.format("b.status = %d", REJECTED.getCode());
+            case WAITING:
+                return String.format("b.status = %d", WAITING.getCode());
+            default:
+                return null;
+        }
+    }
+
+    private static BookingDto toBookingDto(Row row) {
+        BookingDto.User owner = BookingDto.User.builder()
+                .id(row.get("owner_id", Long.class))
+                .name(row.get("owner_name", String.class))
+                .build();
+
+        BookingDto.Item item = BookingDto.Item.builder()
+                .id(row.get("item_id", Long.class))
+                .name(row.get("item_name", String.class))
+                .description(row.get("item_description", String.class))
+                .owner(owner)
+                .build();
+
+        BookingDto.User booker = BookingDto.User.builder()
+                .id(row.get("booker_id", Long.class))
+                .name(row.get("booker_name", String.class))
+                .build();
+
+        return BookingDto.builder()
+                .id(row.get("id", Long.class))
+                .start(row.get("start_date_time", LocalDateTime.class))
+                .end(row.get("end_date_time", LocalDateTime.class))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.fromCode(row.get("status", Short.class)).toString())
+                .build();
+    }
+}
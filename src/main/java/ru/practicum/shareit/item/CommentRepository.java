@@ -1,10 +1,25 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllCommentByItem(Item item);
-
+    /**
+     * Получить комментарии предмета сразу в виде CommentDto. Имя автора выбирается в том же запросе
+     *
+     * @param itemId идентификатор предмета
+     * @param after  id комментария, после которого начинается выборка
+     * @param page   размер выборки
+     * @return комментарии по возрастанию id
+     */
+    @Query("SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c INNER JOIN c.author a " +
+            "WHERE c.item.id = :itemId AND c.id > :after " +
+            "ORDER BY c.id")
+    List<CommentDto> findCommentsByItemId(@Param("itemId") long itemId, @Param("after") long after, Pageable page);
 }
@@ -17,8 +17,12 @@ import java.util.Objects;
 @NoArgsConstructor
 public class Item {
 
+    /**
+     * Выдается последовательностью блоками по 50, поэтому новые предметы вставляются пакетами
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -39,6 +43,9 @@ public class Item {
     @ToString.Exclude
     private ItemRequest request;
 
+    @Version
+    private Long version;
+
     public Item(Long id, String name, String description, boolean available) {
         this.id = id;
         this.name = name;
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.Booking;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Сводка по броням предмета: последняя завершившаяся и ближайшая будущая брони. Правила выбора те же, что и у
+ * BookingRepository.findLastAndNextBookingsByItemIds
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+
+    /**
+     * Момент, начиная с которого сводка может устареть: начинается ближайшая бронь или заканчивается текущая. null,
+     * если у предмета нет броней, которые еще не закончились
+     */
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    @Version
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    /**
+     * Актуальна ли сводка на переданный момент
+     */
+    public boolean isValidAt(LocalDateTime moment) {
+        return validUntil == null || moment.isBefore(validUntil);
+    }
+
+    /**
+     * Учесть бронь в сводке
+     *
+     * @param booking сохраненная бронь предмета
+     * @param now     момент времени, относительно которого бронь считается прошлой или будущей
+     */
+    public void include(Booking booking, LocalDateTime now) {
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+
+        boolean isLaterLast = lastEnd == null
+                || end.isAfter(lastEnd)
+                || end.isEqual(lastEnd) && bookingId > lastBookingId;
+        if (end.isBefore(now) && isLaterLast) {
+            lastBookingId = bookingId;
+            lastBookerId = booking.getBooker().getId();
+            lastEnd = end;
+        }
+
+        boolean isEarlierNext = nextStart == null
+                || start.isBefore(nextStart)
+                || start.isEqual(nextStart) && bookingId < nextBookingId;
+        if (start.isAfter(now) && isEarlierNext) {
+            nextBookingId = bookingId;
+            nextBookerId = booking.getBooker().getId();
+            nextStart = start;
+        }
+
+        if (!end.isBefore(now)) {
+            expireAt(end);
+        }
+        if (start.isAfter(now)) {
+            expireAt(start);
+        }
+    }
+
+    /**
+     * Сократить срок актуальности сводки до переданного момента, если он наступает раньше текущего срока
+     */
+    public void expireAt(LocalDateTime moment) {
+        if (validUntil == null || moment.isBefore(validUntil)) {
+            validUntil = moment;
+        }
+    }
+
+    /**
+     * Совпадает ли содержимое сводок без учета предмета и версии
+     */
+    public boolean hasSameContent(ItemBookingSummary other) {
+        return Objects.equals(lastBookingId, other.lastBookingId)
+                && Objects.equals(lastBookerId, other.lastBookerId)
+                && Objects.equals(lastEnd, other.lastEnd)
+                && Objects.equals(nextBookingId, other.nextBookingId)
+                && Objects.equals(nextBookerId, other.nextBookerId)
+                && Objects.equals(nextStart, other.nextStart)
+                && Objects.equals(validUntil, other.validUntil);
+    }
+
+    /**
+     * Заменить содержимое сводки содержимым другой сводки
+     */
+    public void copyFrom(ItemBookingSummary other) {
+        lastBookingId = other.lastBookingId;
+        lastBookerId = other.lastBookerId;
+        lastEnd = other.lastEnd;
+        nextBookingId = other.nextBookingId;
+        nextBookerId = other.nextBookerId;
+        nextStart = other.nextStart;
+        validUntil = other.validUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ItemBookingSummary summary = (ItemBookingSummary) o;
+        return Objects.equals(itemId, summary.itemId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(itemId);
+    }
+}
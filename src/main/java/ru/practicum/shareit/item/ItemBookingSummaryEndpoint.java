@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Проверка таблицы item_booking_summary: GET считает расходящиеся с бронями сводки, POST перестраивает их
+ */
+@Component
+@Endpoint(id = "itembookingsummary")
+@RequiredArgsConstructor
+public class ItemBookingSummaryEndpoint {
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @ReadOperation
+    public Map<String, Integer> check() {
+        return Map.of("diverged", itemBookingSummaryService.check(false));
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("rebuilt", itemBookingSummaryService.check(true));
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Периодически пересчитывает сводки по броням, которые устарели из-за течения времени: ближайшая бронь началась или
+ * текущая закончилась
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "shareit.item.booking-summary.refresh.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class ItemBookingSummaryRefreshConfiguration {
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Scheduled(fixedDelayString = "${shareit.item.booking-summary.refresh.interval-ms:60000}")
+    public void refreshItemBookingSummaries() {
+        int refreshed = itemBookingSummaryService.refreshOutdated();
+
+        if (refreshed > 0) {
+            log.debug("Refreshed {} item booking summaries", refreshed);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId = :itemId")
+    Optional<ItemBookingSummary> findByIdForUpdate(@Param("itemId") long itemId);
+
+    /**
+     * Сводки предметов, заблокированные до конца транзакции. Строки блокируются в порядке идентификаторов, чтобы
+     * параллельные пересчеты не блокировали друг друга взаимно
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId IN :itemIds ORDER BY s.itemId")
+    List<ItemBookingSummary> findAllByIdForUpdate(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil <= :now ORDER BY s.validUntil")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i " +
+            "WHERE NOT EXISTS (SELECT s.itemId FROM ItemBookingSummary s WHERE s.itemId = i.id) " +
+            "ORDER BY i.id")
+    List<Long> findItemIdsWithoutSummary(Pageable pageable);
+
+    /**
+     * Для каждого предмета получить ближайшее окончание брони, которая еще не закончилась
+     */
+    @Query("SELECT b.item.id AS itemId, MIN(b.end) AS nearestEnd FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.end >= :now " +
+            "GROUP BY b.item.id")
+    List<BookingEnd> findNearestBookingEnds(
+            @Param("itemIds") Collection<Long> itemIds,
+            @Param("now") LocalDateTime now
+    );
+
+    interface BookingEnd {
+        Long getItemId();
+
+        LocalDateTime getNearestEnd();
+    }
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Ведет таблицу item_booking_summary. Сводка создается вместе с предметом и обновляется при добавлении брони, а
+ * устаревшие со временем сводки пересчитываются фоновой задачей. Пока задача не дошла до сводки, чтение пересчитывает
+ * ее по броням без сохранения
+ */
+@Slf4j
+@Service
+@Transactional
+public class ItemBookingSummaryService {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemRepository itemRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingSummaryService(
+            ItemBookingSummaryRepository summaryRepository,
+            BookingRepository bookingRepository,
+            ItemRepository itemRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Получить сводки по броням предметов
+     *
+     * @param itemIds идентификаторы предметов
+     * @param now     момент времени, на который нужны сводки
+     * @return сводка для каждого переданного предмета
+     */
+    public Map<Long, ItemBookingSummary> getSummaries(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+
+        for (ItemBookingSummary summary : summaryRepository.findAllById(itemIds)) {
+            if (summary.isValidAt(now)) {
+                summaries.put(summary.getItemId(), summary);
+            }
+        }
+
+        List<Long> outdatedItemIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .collect(Collectors.toList());
+
+        if (!outdatedItemIds.isEmpty()) {
+            summaries.putAll(compute(outdatedItemIds, now));
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Создать пустую сводку для нового предмета
+     *
+     * @param item сохраненный предмет
+     */
+    public void onItemAdded(Item item) {
+        summaryRepository.save(new ItemBookingSummary(item.getId()));
+    }
+
+    /**
+     * Учесть добавленную бронь в сводке ее предмета. Сводка блокируется до коммита брони, поэтому параллельный пересчет
+     * либо дожидается коммита и видит бронь, либо завершается раньше, и бронь учитывается в уже пересчитанной сводке.
+     * Если сводки еще нет, ее создаст фоновая задача: вставка из параллельных транзакций привела бы к конфликту
+     * первичного ключа
+     *
+     * @param booking сохраненная бронь
+     */
+    public void onBookingAdded(Booking booking) {
+        LocalDateTime now = LocalDateTime.now();
+        long itemId = booking.getItem().getId();
+
+        summaryRepository.findByIdForUpdate(itemId).ifPresent(summary -> {
+            if (!summary.isValidAt(now)) {
+                summary.copyFrom(compute(List.of(itemId), now).get(itemId));
+            }
+
+            summary.include(booking, now);
+        });
+    }
+
+    /**
+     * Пересчитать устаревшие сводки и создать отсутствующие. Каждая порция сохраняется в отдельной транзакции; порция,
+     * которая конфликтует с параллельным добавлением брони, пропускается до следующего запуска
+     *
+     * @return количество сохраненных сводок
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refreshOutdated() {
+        int refreshed = 0;
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            PageRequest batch = PageRequest.of(0, BATCH_SIZE);
+            List<Long> itemIds = new ArrayList<>(summaryRepository.findStaleItemIds(now, batch));
+            itemIds.addAll(summaryRepository.findItemIdsWithoutSummary(batch));
+
+            if (itemIds.isEmpty()) {
+                return refreshed;
+            }
+
+            try {
+                refreshed += refresh(itemIds);
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                log.info("Item booking summary refresh postponed: {}", e.getMessage());
+
+                return refreshed;
+            }
+        }
+    }
+
+    /**
+     * Сверить все сводки с бронями
+     *
+     * @param rebuild перезаписать расходящиеся и создать отсутствующие сводки
+     * @return количество предметов, сводка которых отсутствовала или расходилась с бронями
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int check(boolean rebuild) {
+        int mismatches = 0;
+        long lastItemId = 0;
+
+        while (true) {
+            List<Long> itemIds = itemRepository
+                    .findAllByIdGreaterThanOrderByIdAsc(lastItemId, PageRequest.of(0, BATCH_SIZE)).stream()
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+
+            if (itemIds.isEmpty()) {
+                return mismatches;
+            }
+            lastItemId = itemIds.get(itemIds.size() - 1);
+
+            List<Long> divergedItemIds = transactionTemplate.execute(status -> {
+                Map<Long, ItemBookingSummary> actual = compute(itemIds, LocalDateTime.now());
+                Map<Long, ItemBookingSummary> stored = summaryRepository.findAllById(itemIds).stream()
+                        .collect(Collectors.toMap(ItemBookingSummary::getItemId, summary -> summary));
+
+                return actual.values().stream()
+                        .filter(summary -> !stored.containsKey(summary.getItemId())
+                                || !stored.get(summary.getItemId()).hasSameContent(summary))
+                        .map(ItemBookingSummary::getItemId)
+                        .collect(Collectors.toList());
+            });
+
+            if (divergedItemIds.isEmpty()) {
+                continue;
+            }
+
+            if (rebuild) {
+                refresh(divergedItemIds);
+            } else {
+                log.warn("Item booking summary diverged for items {}", divergedItemIds);
+            }
+
+            mismatches += divergedItemIds.size();
+        }
+    }
+
+    /**
+     * Вычислить сводки по броням
+     */
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        itemIds.forEach(itemId -> summaries.put(itemId, new ItemBookingSummary(itemId)));
+
+        for (Booking booking : bookingRepository.findLastAndNextBookingsByItemIds(itemIds, now)) {
+            summaries.get(booking.getItem().getId()).include(booking, now);
+        }
+
+        for (ItemBookingSummaryRepository.BookingEnd end : summaryRepository.findNearestBookingEnds(itemIds, now)) {
+            summaries.get(end.getItemId()).expireAt(end.getNearestEnd());
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Пересчитать сводки предметов. Отсутствующие сводки сначала сохраняются устаревшими, затем все сводки блокируются
+     * и только после этого вычисляются по броням: бронь, добавленная параллельно, либо уже видна при вычислении, либо
+     * будет учтена onBookingAdded после снятия блокировки
+     *
+     * @return количество пересчитанных сводок
+     */
+    private int refresh(List<Long> itemIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Set<Long> storedItemIds = summaryRepository.findAllById(itemIds).stream()
+                    .map(ItemBookingSummary::getItemId)
+                    .collect(Collectors.toSet());
+
+            for (Long itemId : itemIds) {
+                if (!storedItemIds.contains(itemId)) {
+                    ItemBookingSummary summary = new ItemBookingSummary(itemId);
+                    summary.setValidUntil(now);
+                    summaryRepository.save(summary);
+                }
+            }
+        });
+
+        return transactionTemplate.execute(status -> {
+            List<ItemBookingSummary> summaries = summaryRepository.findAllByIdForUpdate(itemIds);
+            Map<Long, ItemBookingSummary> computed = compute(itemIds, LocalDateTime.now());
+
+            summaries.forEach(summary -> summary.copyFrom(computed.get(summary.getItemId())));
+
+            return summaries.size();
+        });
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.user.SharerUserId;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,17 +22,45 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    private final ItemImportService itemImportService;
+
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public ItemDto addItem(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @Valid @RequestBody ItemCreateDto itemCreateDto
     ) {
         return ItemMapper.toItemDto(itemService.addItem(userId, itemCreateDto));
     }
 
+    /**
+     * Добавить предметы из JSON-массива объектов ItemCreateDto. Массив читается по мере добавления предметов
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemImportResultDto importItemsFromJson(
+            @SharerUserId long userId,
+            InputStream body
+    ) {
+        return itemImportService.importItems(userId, new ItemJsonReader(objectMapper, body));
+    }
+
+    /**
+     * Добавить предметы из CSV в кодировке UTF-8 с заголовком name,description,available[,requestId]
+     */
+    @PostMapping(path = "/bulk", consumes = ItemCsvReader.MEDIA_TYPE)
+    public ItemImportResultDto importItemsFromCsv(
+            @SharerUserId long userId,
+            InputStream body
+    ) {
+        return itemImportService.importItems(
+                userId, new ItemCsvReader(new InputStreamReader(body, StandardCharsets.UTF_8))
+        );
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @PathVariable long itemId,
             @RequestBody ItemDto itemDto
     ) {
@@ -38,7 +72,7 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ItemWithBookingDatesDto getItem(
             @PathVariable long itemId,
-            @RequestHeader("X-Sharer-User-Id") long userId
+            @SharerUserId long userId
     ) {
 
         return itemService.getItemById(itemId, userId);
@@ -46,7 +80,7 @@ public class ItemController {
 
     @GetMapping
     public List<ItemWithBookingDatesDto> getAll(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @RequestParam(defaultValue = "0") @Min(0) Integer from,
             @RequestParam(defaultValue = "100") @Min(1) Integer size
     ) {
@@ -64,11 +98,21 @@ public class ItemController {
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(
+            @PathVariable long itemId,
+            @SharerUserId long userId,
+            @RequestParam(defaultValue = "0") @Min(0) Long after,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
+    ) {
+        return itemService.getCommentsByItemId(itemId, userId, after, size);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(
             @Valid @RequestBody CommentCreateDto commentCreateDto,
             @PathVariable long itemId,
-            @RequestHeader("X-Sharer-User-Id") long userId
+            @SharerUserId long userId
     ) {
         return CommentMapper.toCommentDto(itemService.addComment(commentCreateDto, itemId, userId));
     }
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.exceptions.ItemImportFormatException;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.metrics.MetricsConfiguration;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.requests.RequestService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое добавление предметов одного владельца. Владелец проверяется один раз, предметы обрабатываются порциями по
+ * CHUNK_SIZE: на порцию приходится один запрос существующих названий, один запрос запросов вещей и пакетные вставки
+ * по hibernate.jdbc.batch_size строк. После каждой порции контекст персистентности очищается
+ */
+@Slf4j
+@Service
+@Timed(value = MetricsConfiguration.SERVICE_TIMER, histogram = true)
+@Transactional
+@RequiredArgsConstructor
+public class ItemImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+
+    private final UserService userService;
+
+    private final RequestService requestService;
+
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Добавить предметы владельцу. Строки с ошибками пропускаются и попадают в итог, остальные добавляются
+     *
+     * @param ownerId идентификатор владельца предметов
+     * @param rows    предметы в порядке входных данных. Читаются по мере обработки
+     * @return количество добавленных предметов и ошибки по номерам строк
+     * @throws UserNotFoundException     если владелец не найден
+     * @throws ItemImportFormatException если входные данные не удается прочитать. Ничего не добавляется
+     */
+    public ItemImportResultDto importItems(long ownerId, Iterator<ItemCreateDto> rows) {
+        User owner = userService.getUserById(ownerId);
+        ItemImportResultDto result = new ItemImportResultDto();
+        Set<String> importedNames = new HashSet<>();
+        List<ItemCreateDto> chunk = new ArrayList<>(CHUNK_SIZE);
+        long firstRow = 1;
+
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(owner, chunk, firstRow, importedNames, result);
+                firstRow += chunk.size();
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(owner, chunk, firstRow, importedNames, result);
+        }
+
+        log.info("Import {} items for owner id:{}, {} rows rejected", result.getImported(), ownerId,
+                result.getErrors().size());
+
+        return result;
+    }
+
+    private void importChunk(
+            User owner,
+            List<ItemCreateDto> chunk,
+            long firstRow,
+            Set<String> importedNames,
+            ItemImportResultDto result
+    ) {
+        Set<String> names = chunk.stream()
+                .map(ItemCreateDto::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existingNames = names.isEmpty()
+                ? Set.of()
+                : new HashSet<>(itemRepository.findNamesByOwnerIdAndNameIn(owner.getId(), names));
+
+        Set<Long> requestIds = chunk.stream()
+                .map(ItemCreateDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty()
+                ? Map.of()
+                : requestService.getItemRequestsByIds(requestIds);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ItemCreateDto itemCreateDto = chunk.get(i);
+            String error = validate(itemCreateDto, existingNames, importedNames, requests);
+
+            if (error != null) {
+                result.addError(firstRow + i, error);
+                continue;
+            }
+
+            Item item = ItemMapper.toItem(itemCreateDto);
+            item.setOwner(owner);
+
+            if (itemCreateDto.getRequestId() != null) {
+                item.setRequest(requests.get(itemCreateDto.getRequestId()));
+            }
+
+            itemRepository.save(item);
+            itemSearchEngine.index(item);
+            itemBookingSummaryService.onItemAdded(item);
+            importedNames.add(item.getName());
+            result.setImported(result.getImported() + 1);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * @return описание ошибки или null, если предмет можно добавить
+     */
+    private String validate(
+            ItemCreateDto itemCreateDto,
+            Set<String> existingNames,
+            Set<String> importedNames,
+            Map<Long, ItemRequest> requests
+    ) {
+        Set<ConstraintViolation<ItemCreateDto>> violations = validator.validate(itemCreateDto);
+
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        String name = itemCreateDto.getName();
+
+        if (existingNames.contains(name) || importedNames.contains(name)) {
+            return String.format("Item with name '%s' already exists", name);
+        }
+
+        Long requestId = itemCreateDto.getRequestId();
+
+        if (requestId != null && !requests.containsKey(requestId)) {
+            return String.format("Item request with id:%s not found.", requestId);
+        }
+
+        return null;
+    }
+}
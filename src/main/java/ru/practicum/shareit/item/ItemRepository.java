@@ -1,19 +1,50 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerId(Long ownerId, Pageable pageable);
+    /**
+     * Страница предметов владельца без подсчета общего количества. Запрашивается на одну запись больше размера
+     * страницы, по ней определяется наличие следующей
+     */
+    Slice<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
-    List<Item> findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(
-            String name,
-            String description,
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForVersionIncrement(@Param("id") long id);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = true " +
+            "AND (UPPER(i.name) LIKE UPPER(:pattern) ESCAPE '\\' " +
+            "OR UPPER(i.description) LIKE UPPER(:pattern) ESCAPE '\\') " +
+            "ORDER BY i.id")
+    List<Item> searchAvailableByPattern(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (i.name ILIKE :pattern ESCAPE '\\' OR i.description ILIKE :pattern ESCAPE '\\') " +
+            "ORDER BY GREATEST(similarity(i.name, :text), word_similarity(:text, i.description)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailableByTrigrams(
+            @Param("text") String text,
+            @Param("pattern") String pattern,
             Pageable pageable
     );
 
     List<Item> findAllByRequestId(long requestId);
+
+    @Query("SELECT i.name FROM Item i WHERE i.owner.id = :ownerId AND i.name IN :names")
+    List<String> findNamesByOwnerIdAndNameIn(@Param("ownerId") long ownerId, @Param("names") Collection<String> names);
+
+    List<Item> findAllByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 }
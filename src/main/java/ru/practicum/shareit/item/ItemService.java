@@ -1,17 +1,23 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingWriteGuard;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotBookedItemException;
 import ru.practicum.shareit.item.exceptions.UserNotOwnerItemException;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.logging.LogMarkers;
+import ru.practicum.shareit.metrics.MetricsConfiguration;
 import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.requests.RequestService;
 import ru.practicum.shareit.user.User;
@@ -24,10 +30,23 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = MetricsConfiguration.SERVICE_TIMER, histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class ItemService {
 
+    /**
+     * Сколько первых комментариев отдается вместе с предметом. Остальные выбираются постранично через
+     * getCommentsByItemId
+     */
+    public static final int ITEM_COMMENTS_LIMIT = 20;
+
+    /**
+     * Наибольший размер страницы предметов владельца. Slice запрашивает на одну запись больше размера страницы, и
+     * для Integer.MAX_VALUE это число переполнилось бы
+     */
+    private static final int MAX_OWNER_PAGE_SIZE = Integer.MAX_VALUE - 1;
+
     private final ItemRepository itemRepository;
     private final UserService userService;
 
@@ -37,6 +56,12 @@ public class ItemService {
 
     private final BookingRepository bookingRepository;
 
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    private final BookingWriteGuard bookingWriteGuard;
+
     /**
      * Добавить предмет
      *
@@ -56,7 +81,13 @@ public class ItemService {
 
         log.info("Add {}", item);
 
-        return itemRepository.save(item);
+        // id выдает последовательность, поэтому INSERT откладывается до сброса. Сброс здесь проверяет предмет до того,
+        // как он попадет в индекс поиска
+        Item savedItem = itemRepository.saveAndFlush(item);
+        itemSearchEngine.index(savedItem);
+        itemBookingSummaryService.onItemAdded(savedItem);
+
+        return savedItem;
     }
 
     /**
@@ -65,22 +96,29 @@ public class ItemService {
      * @param ownerId id владельца
      * @param itemDto экземпляр класса ItemDto, который содержит в себе информацию для обновления
      * @return обновленный предмет из хранилища
+     * @throws ItemNotFoundException     если предмет не найден
      * @throws UserNotFoundException     если владелец не найден в системе
      * @throws UserNotOwnerItemException если пользователь не является хозяином предмета
+     * @throws OptimisticLockingFailureException если предмет менялся параллельно во всех попытках. Каждая новая бронь
+     *                                           увеличивает версию предмета, поэтому обновление выполняется через
+     *                                           BookingWriteGuard и повторяется так же, как запись брони
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Item updateItem(long ownerId, ItemDto itemDto) {
-        checkAndGetItemOwner(ownerId, itemDto.getName());
+        return bookingWriteGuard.execute(itemDto::getId, () -> applyUpdate(ownerId, itemDto));
+    }
+
+    private Item applyUpdate(long ownerId, ItemDto itemDto) {
+        Item itemInStorage = getItemById(itemDto.getId());
+
+        if (!isOwnerOfItem(ownerId, itemInStorage)) {
+            checkAndGetItemOwner(ownerId, itemInStorage.getName());
 
-        if (!isOwnerOfItem(ownerId, itemDto.getId())) {
             throw new UserNotOwnerItemException(
                     String.format("The user with id:%s is not the owner of the %s", ownerId, itemDto)
             );
         }
 
-        Item itemInStorage = itemRepository.findById(itemDto.getId()).orElseThrow(
-                () -> new ItemNotFoundException(String.format("Item with id:%s not found.", itemDto.getId()))
-        );
-
         if (itemDto.getAvailable() != null) {
             itemInStorage.setAvailable(itemDto.getAvailable());
         }
@@ -95,6 +133,8 @@ public class ItemService {
 
         log.info("Update item with id:{} on {}", itemInStorage.getId(), itemInStorage);
 
+        itemSearchEngine.index(itemInStorage);
+
         return itemInStorage;
     }
 
@@ -105,30 +145,24 @@ public class ItemService {
      * @param userId идентификатор пользователя, который хочет получить информацию
      * @return экземпляр класса ItemWithBookingDatesDto. Экземпляр в себе содержил помимо информации о предмете еще и
      * информацию о предыдущем и следующем бронировани, если пользователь является владельцем вещи. Так же экземпляр
-     * содержит в себе комментарии арендаторов
+     * содержит в себе первые ITEM_COMMENTS_LIMIT комментариев арендаторов
      * @throws ItemNotFoundException если предмет не найден
+     * @throws UserNotFoundException если пользователь не является владельцем вещи и не найден в системе
      */
     public ItemWithBookingDatesDto getItemById(long itemId, long userId) {
-        log.info("Get item by id:{}", itemId);
+        log.info(LogMarkers.SAMPLED, "Get item by id:{}", itemId);
 
         Item item = getItemById(itemId);
-        ItemWithBookingDatesDto itemDto = ItemMapper.toItemWithBookingDatesDto(item);
+        ItemWithBookingDatesDto itemDto;
 
-        if (isOwnerOfItem(userId, itemId)) {
+        if (isOwnerOfItem(userId, item)) {
             itemDto = addToItemLastAndNextBooking(item);
+        } else {
+            userService.getUserById(userId);
+            itemDto = ItemMapper.toItemWithBookingDatesDto(item);
         }
 
-        List<Comment> comments = getAllCommentsByItem(item);
-        itemDto.setComments(
-                comments.stream()
-                        .map(c -> ItemWithBookingDatesDto.Comment.builder()
-                                .id(c.getId())
-                                .text(c.getText())
-                                .authorName(c.getAuthor().getName())
-                                .created(c.getCreated())
-                                .build())
-                        .collect(Collectors.toList())
-        );
+        itemDto.setComments(commentRepository.findCommentsByItemId(itemId, 0, PageRequest.of(0, ITEM_COMMENTS_LIMIT)));
 
         return itemDto;
     }
@@ -147,6 +181,21 @@ public class ItemService {
         );
     }
 
+    /**
+     * Получить предмет по id и увеличить его версию при коммите текущей транзакции. Из двух конкурентных транзакций,
+     * создающих брони одного предмета, вторая завершится OptimisticLockingFailureException и будет повторена. С этим
+     * увеличением версии конфликтует и updateItem, поэтому он повторяется тем же BookingWriteGuard
+     *
+     * @param itemId идентификатор предмета
+     * @return найденный предмет
+     * @throws ItemNotFoundException если предмет не найден
+     */
+    public Item lockItemById(long itemId) {
+        return itemRepository.findByIdForVersionIncrement(itemId).orElseThrow(
+                () -> new ItemNotFoundException(String.format("Item with id:%s not found.", itemId))
+        );
+    }
+
     /**
      * Добавить предыдущий и следующий ближайшие брони.
      *
@@ -155,24 +204,30 @@ public class ItemService {
      * и дополнительно информацию о предыдущем и следующем бронях предмета
      */
     private ItemWithBookingDatesDto addToItemLastAndNextBooking(Item item) {
-        LocalDateTime now = LocalDateTime.now();
-
-        List<Booking> bookings = bookingRepository.findAllBookingByItemId(item.getId());
-
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(b -> b.getEnd().isBefore(now))
-                .max(Comparator.comparing(Booking::getEnd));
+        return addToItemsLastAndNextBooking(List.of(item)).get(0);
+    }
 
-        Optional<Booking> nextBooking = bookings.stream()
-                .filter(b -> b.getStart().isAfter(now))
-                .min(Comparator.comparing(Booking::getStart));
+    /**
+     * Добавить предыдущий и следующий ближайшие брони к списку предметов. Брони берутся из сводок
+     * item_booking_summary, устаревшие сводки пересчитываются одним запросом
+     *
+     * @param items предметы к которым нужно добавить информацию о бронировании
+     * @return список экземпляров класса ItemWithBookingDatesDto в том же порядке, что и переданные предметы
+     */
+    private List<ItemWithBookingDatesDto> addToItemsLastAndNextBooking(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
 
-        ItemWithBookingDatesDto itemWithBookingDatesDto = ItemMapper.toItemWithBookingDatesDto(item);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
 
-        lastBooking.ifPresent(itemWithBookingDatesDto::setLastBooking);
-        nextBooking.ifPresent(itemWithBookingDatesDto::setNextBooking);
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(itemIds, LocalDateTime.now());
 
-        return itemWithBookingDatesDto;
+        return items.stream()
+                .map(item -> ItemMapper.toItemWithBookingDatesDto(item, summaries.get(item.getId())))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -181,27 +236,28 @@ public class ItemService {
      * @param ownerId id владельца
      * @param from    - индекс первого элемента (для пагинации)
      * @param size    - количество элементов отображения
-     * @return список предметов, выбранных по id владельца, с информацией и ближайших по времени бронях
+     * @return список предметов, выбранных по id владельца, с информацией и ближайших по времени бронях. Страница
+     * читается как Slice, без отдельного запроса COUNT
      */
     public List<ItemWithBookingDatesDto> getAllByOwnerId(long ownerId, int from, int size) {
-        log.info("Get all items by owner id:{}", ownerId);
+        log.info(LogMarkers.SAMPLED, "Get all items by owner id:{}", ownerId);
 
-        PageRequest pageRequest = PageRequest.of(from, size);
+        PageRequest pageRequest = PageRequest.of(from, Math.min(size, MAX_OWNER_PAGE_SIZE));
 
-        return itemRepository.findByOwnerId(ownerId, pageRequest).stream()
-                .map(this::addToItemLastAndNextBooking)
-                .collect(Collectors.toList());
+        List<Item> items = itemRepository.findByOwnerId(ownerId, pageRequest).getContent();
+
+        return addToItemsLastAndNextBooking(items);
     }
 
     /**
      * Найти предметы по имени и описанию
      *
      * @param txt текст по наличию котого будет вестись поиск
-     * @return список предметов, в которых нашлось совпадение по переданному тексту. Если ничего не нашлось, вернет
-     * пустой список
+     * @return список доступных для бронирования предметов, в которых нашлось совпадение по переданному тексту. Если
+     * ничего не нашлось, вернет пустой список
      */
     public List<Item> searchByNameOrDescription(String txt, int from, int size) {
-        log.info("Search items by name or description with text \"{}\"", txt);
+        log.info(LogMarkers.SAMPLED, "Search items by name or description with text \"{}\"", txt);
 
         if (txt.isBlank()) {
             return List.of();
@@ -209,10 +265,7 @@ public class ItemService {
 
         PageRequest pageRequest = PageRequest.of(from, size);
 
-        return itemRepository.findByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(txt, txt, pageRequest)
-                .stream()
-                .filter(Item::isAvailable)
-                .collect(Collectors.toList());
+        return itemSearchEngine.search(txt, pageRequest);
     }
 
     /**
@@ -235,17 +288,14 @@ public class ItemService {
     }
 
     /**
-     * Хозяин ли вещи?
+     * Хозяин ли вещи? Сравниваются только идентификаторы, владелец из базы данных не загружается
      *
      * @param userId id пользователя
-     * @param itemId id вещи
+     * @param item   вещь
      * @return true - если пользователь является хозяеном вещи
      */
-    private boolean isOwnerOfItem(long userId, long itemId) {
-        User owner = userService.getUserById(userId);
-        Item item = getItemById(itemId);
-
-        return item.getOwner().equals(owner);
+    private boolean isOwnerOfItem(long userId, Item item) {
+        return item.getOwner().getId().equals(userId);
     }
 
     /**
@@ -261,9 +311,7 @@ public class ItemService {
      */
     public Comment addComment(CommentCreateDto commentCreateDto, long itemId, long userId) {
         User author = userService.getUserById(userId);
-        Item item = itemRepository.findById(itemId).orElseThrow(
-                () -> new ItemNotFoundException(String.format("Item with id:%s not found.", itemId))
-        );
+        Item item = getItemById(itemId);
         boolean authorIsBookedItem = bookingRepository.findAllBookingByItem(item).stream()
                 .anyMatch(
                         b -> b.getBooker().getId().equals(userId)
@@ -289,13 +337,24 @@ public class ItemService {
     }
 
     /**
-     * Получить все комментарии по предмету
+     * Получить комментарии предмета по возрастанию id
      *
-     * @param item предмет по которому происходит поиск комментария
-     * @return список комментариев
+     * @param itemId идентификатор предмета
+     * @param userId идентификатор пользователя, который запрашивает комментарии
+     * @param after  id комментария, после которого начинается страница
+     * @param size   количество комментариев на странице
+     * @return комментарии с именами авторов
+     * @throws UserNotFoundException если пользователь не найден
+     * @throws ItemNotFoundException если предмет не найден
      */
-    public List<Comment> getAllCommentsByItem(Item item) {
-        return commentRepository.findAllCommentByItem(item);
+    public List<CommentDto> getCommentsByItemId(long itemId, long userId, long after, int size) {
+        userService.getUserById(userId);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(String.format("Item with id:%s not found.", itemId));
+        }
+
+        return commentRepository.findCommentsByItemId(itemId, after, PageRequest.of(0, size));
     }
 
     public List<Item> getAllItemByRequestId(long requestId) {
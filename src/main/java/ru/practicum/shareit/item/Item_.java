@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.requests.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import javax.persistence.metamodel.SingularAttribute;
@@ -7,5 +8,11 @@ import javax.persistence.metamodel.StaticMetamodel;
 
 @StaticMetamodel(Item.class)
 public class Item_ {
+    public static volatile SingularAttribute<Item, Long> id;
+    public static volatile SingularAttribute<Item, String> name;
+    public static volatile SingularAttribute<Item, String> description;
+    public static volatile SingularAttribute<Item, Boolean> available;
     public static volatile SingularAttribute<Item, User> owner;
+    public static volatile SingularAttribute<Item, ItemRequest> request;
+    public static volatile SingularAttribute<Item, Long> version;
 }
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
+import ru.practicum.shareit.user.SharerUserId;
+
+import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
+
+/**
+ * Списки предметов в формате application/x-ndjson. Выбирается по заголовку Accept, остальные запросы обрабатывает
+ * ItemController. Комментарии в списке предметов владельца, как и в ItemController, не возвращаются
+ */
+@RestController
+@RequestMapping(path = "/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@ConditionalOnProperty(name = "shareit.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveItemController {
+
+    private final ReactiveItemRepository reactiveItemRepository;
+
+    @GetMapping
+    public Flux<ItemWithBookingDatesDto> getAll(
+            @SharerUserId long userId,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
+    ) {
+        return reactiveItemRepository.findByOwner(userId, from, size, LocalDateTime.now());
+    }
+
+    @GetMapping("/search")
+    public Flux<ItemDto> searchByNameAndDescription(
+            @RequestParam() String text,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
+    ) {
+        if (text.isBlank()) {
+            return Flux.empty();
+        }
+
+        return reactiveItemRepository.searchAvailable(text, from, size);
+    }
+}
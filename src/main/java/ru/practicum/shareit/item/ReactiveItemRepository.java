@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+
+import java.time.LocalDateTime;
+
+/**
+ * Списки предметов через R2DBC. Строки читаются порциями по FETCH_SIZE и сразу превращаются в DTO
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveItemRepository {
+    private static final int FETCH_SIZE = 100;
+
+    /**
+     * Бронь из актуальной сводки item_booking_summary, а если сводки нет или она устарела - из броней предмета по
+     * тем же правилам, что и BookingRepository.findLastAndNextBookingsByItemIds
+     */
+    private static final String BOOKING_COLUMN = "CASE WHEN s.item_id IS NOT NULL " +
+            "AND (s.valid_until IS NULL OR s.valid_until > :now) THEN s.%1$s " +
+            "ELSE (SELECT b.%2$s FROM bookings b WHERE b.item_id = i.id AND %3$s LIMIT 1) END AS %1$s";
+
+    private static final String LAST_BOOKING = "b.end_date_time < :now ORDER BY b.end_date_time DESC, b.id DESC";
+
+    private static final String NEXT_BOOKING = "b.start_date_time > :now ORDER BY b.start_date_time, b.id";
+
+    private static final String SELECT_OWNER_ITEMS = "SELECT i.id, i.name, i.description, i.available, " +
+            String.format(BOOKING_COLUMN, "last_booking_id", "id", LAST_BOOKING) + ", " +
+            String.format(BOOKING_COLUMN, "last_booker_id", "booker_id", LAST_BOOKING) + ", " +
+            String.format(BOOKING_COLUMN, "next_booking_id", "id", NEXT_BOOKING) + ", " +
+            String.format(BOOKING_COLUMN, "next_booker_id", "booker_id", NEXT_BOOKING) + " " +
+            "FROM items i " +
+            "LEFT JOIN item_booking_summary s ON s.item_id = i.id " +
+            "WHERE i.owner_id = :ownerId " +
+            "ORDER BY i.id LIMIT :limit OFFSET :offset";
+
+    private static final String SEARCH_AVAILABLE = "SELECT i.id, i.name, i.description, i.available, i.request_id " +
+            "FROM items i " +
+            "WHERE i.available = true " +
+            "AND (UPPER(i.name) LIKE UPPER(:pattern) OR UPPER(i.description) LIKE UPPER(:pattern)) " +
+            "ORDER BY i.id LIMIT :limit OFFSET :offset";
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * Предметы владельца с последней и ближайшей бронями, по возрастанию id
+     */
+    public Flux<ItemWithBookingDatesDto> findByOwner(long ownerId, int from, int size, LocalDateTime now) {
+        return reactiveDatabaseClient.sql(SELECT_OWNER_ITEMS)
+                .bind("ownerId", ownerId)
+                .bind("now", now)
+                .bind("limit", size)
+                .bind("offset", (long) from * size)
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ReactiveItemRepository::toItemWithBookingDatesDto)
+                .all();
+    }
+
+    /**
+     * Доступные предметы, в названии или описании которых встречается текст, по возрастанию id. Ищет так же, как
+     * LikeItemSearchEngine
+     */
+    public Flux<ItemDto> searchAvailable(String text, int from, int size) {
+        return reactiveDatabaseClient.sql(SEARCH_AVAILABLE)
+                .bind("pattern", ItemSearchEngine.containsPattern(text))
+                .bind("limit", size)
+                .bind("offset", (long) from * size)
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ReactiveItemRepository::toItemDto)
+                .all();
+    }
+
+    private static ItemWithBookingDatesDto toItemWithBookingDatesDto(Row row) {
+        ItemWithBookingDatesDto item = ItemWithBookingDatesDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .available(row.get("available", Boolean.class))
+                .build();
+
+        Long lastBookingId = row.get("last_booking_id", Long.class);
+        if (lastBookingId != null) {
+            item.setLastBooking(
+                    new ItemWithBookingDatesDto.Booking(lastBookingId, row.get("last_booker_id", Long.class))
+            );
+        }
+
+        Long nextBookingId = row.get("next_booking_id", Long.class);
+        if (nextBookingId != null) {
+            item.setNextBooking(
+                    new ItemWithBookingDatesDto.Booking(nextBookingId, row.get("next_booker_id", Long.class))
+            );
+        }
+
+        return item;
+    }
+
+    private static ItemDto toItemDto(Row row) {
+        return ItemDto.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .description(row.get("description", String.class))
+                .available(row.get("available", Boolean.class))
+                .requestId(row.get("request_id", Long.class))
+                .build();
+    }
+}
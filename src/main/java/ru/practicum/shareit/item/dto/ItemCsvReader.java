@@ -0,0 +1,180 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.exceptions.ItemImportFormatException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Чтение предметов из CSV по RFC 4180 по одной записи, без загрузки всего файла в память. Первая запись - заголовок
+ * с именами полей ItemCreateDto: name, description, available и необязательный requestId, в любом порядке. Пустые
+ * строки пропускаются
+ */
+public class ItemCsvReader implements Iterator<ItemCreateDto> {
+    public static final String MEDIA_TYPE = "text/csv";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final Reader reader;
+
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    private long record;
+
+    private List<String> next;
+
+    /**
+     * @throws ItemImportFormatException если нет заголовка или в нем нет обязательного столбца
+     */
+    public ItemCsvReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+
+        List<String> header = readRecord();
+
+        if (header == null) {
+            throw new ItemImportFormatException("CSV header is missing");
+        }
+
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new ItemImportFormatException(String.format("CSV header has no column '%s'", column));
+            }
+        }
+
+        next = readRecord();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Следующий предмет. Значение available, отличное от true и false, читается как null и отклоняется проверкой
+     * ItemCreateDto
+     *
+     * @throws ItemImportFormatException если requestId не число или следующая запись оборвана внутри кавычек
+     */
+    @Override
+    public ItemCreateDto next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+
+        List<String> current = next;
+        long currentRecord = record;
+        next = readRecord();
+
+        String requestId = field(current, "requestId");
+
+        try {
+            return ItemCreateDto.builder()
+                    .name(field(current, "name"))
+                    .description(field(current, "description"))
+                    .available(parseAvailable(field(current, "available")))
+                    .requestId(requestId == null || requestId.isBlank() ? null : Long.valueOf(requestId.trim()))
+                    .build();
+        } catch (NumberFormatException e) {
+            throw new ItemImportFormatException(
+                    String.format("Invalid requestId '%s' in CSV record %d", requestId, currentRecord)
+            );
+        }
+    }
+
+    private String field(List<String> values, String column) {
+        Integer index = columns.get(column);
+
+        return index == null || index >= values.size() ? null : values.get(index);
+    }
+
+    private static Boolean parseAvailable(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+                return true;
+            case "false":
+                return false;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Прочитать следующую запись. Поле в кавычках может содержать запятые и переводы строк, кавычка внутри него
+     * удваивается
+     *
+     * @return значения полей или null, если записи закончились
+     */
+    private List<String> readRecord() {
+        try {
+            int c = reader.read();
+
+            while (c == '\r' || c == '\n') {
+                c = reader.read();
+            }
+
+            if (c == -1) {
+                return null;
+            }
+
+            record++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new ItemImportFormatException(String.format("Unclosed quote in CSV record %d", record));
+                    }
+
+                    if (c == '"') {
+                        c = reader.read();
+
+                        if (c == '"') {
+                            field.append('"');
+                            c = reader.read();
+                        } else {
+                            quoted = false;
+                        }
+
+                        continue;
+                    }
+
+                    field.append((char) c);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    fields.add(field.toString());
+
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+
+                c = reader.read();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
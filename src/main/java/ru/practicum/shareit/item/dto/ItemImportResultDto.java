@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Итог импорта предметов: сколько предметов добавлено и какие строки отклонены
+ */
+@Data
+public class ItemImportResultDto {
+
+    private int imported;
+
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(long row, String error) {
+        errors.add(new RowError(row, error));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * Номер предмета во входных данных, начиная с 1. Заголовок CSV не считается
+         */
+        private long row;
+
+        private String error;
+
+    }
+}
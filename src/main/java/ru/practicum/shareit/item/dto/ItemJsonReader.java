@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.exceptions.ItemImportFormatException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Чтение предметов из JSON-массива по одному элементу, без загрузки всего массива в память
+ */
+public class ItemJsonReader implements Iterator<ItemCreateDto> {
+    private final MappingIterator<ItemCreateDto> values;
+
+    /**
+     * @throws ItemImportFormatException если начало входных данных не JSON
+     */
+    public ItemJsonReader(ObjectMapper objectMapper, InputStream inputStream) {
+        try {
+            values = objectMapper.readerFor(ItemCreateDto.class).readValues(inputStream);
+        } catch (IOException e) {
+            throw new ItemImportFormatException(e.getMessage());
+        }
+    }
+
+    /**
+     * @throws ItemImportFormatException если очередной элемент не удается прочитать
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            return values.hasNextValue();
+        } catch (IOException e) {
+            throw new ItemImportFormatException(e.getMessage());
+        }
+    }
+
+    /**
+     * @throws ItemImportFormatException если очередной элемент не удается прочитать
+     */
+    @Override
+    public ItemCreateDto next() {
+        try {
+            return values.nextValue();
+        } catch (IOException e) {
+            throw new ItemImportFormatException(e.getMessage());
+        }
+    }
+}
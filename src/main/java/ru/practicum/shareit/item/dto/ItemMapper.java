@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemBookingSummary;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
@@ -52,4 +53,22 @@ public class ItemMapper {
                 .available(item.isAvailable())
                 .build();
     }
+
+    public static ItemWithBookingDatesDto toItemWithBookingDatesDto(Item item, ItemBookingSummary summary) {
+        ItemWithBookingDatesDto result = toItemWithBookingDatesDto(item);
+
+        if (summary.getLastBookingId() != null) {
+            result.setLastBooking(
+                    new ItemWithBookingDatesDto.Booking(summary.getLastBookingId(), summary.getLastBookerId())
+            );
+        }
+
+        if (summary.getNextBookingId() != null) {
+            result.setNextBooking(
+                    new ItemWithBookingDatesDto.Booking(summary.getNextBookingId(), summary.getNextBookerId())
+            );
+        }
+
+        return result;
+    }
 }
@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -25,29 +24,7 @@ public class ItemWithBookingDatesDto {
 
     private Booking nextBooking;
 
-    private List<Comment> comments;
-
-    @Data
-    @Builder
-    public static class Comment {
-
-        private Long id;
-
-        private String text;
-
-        private String authorName;
-
-        private LocalDateTime created;
-
-    }
-
-    public void setLastBooking(ru.practicum.shareit.booking.Booking lastBooking) {
-        this.lastBooking = new Booking(lastBooking.getId(), lastBooking.getBooker().getId());
-    }
-
-    public void setNextBooking(ru.practicum.shareit.booking.Booking nextBooking) {
-        this.nextBooking = new Booking(nextBooking.getId(), nextBooking.getBooker().getId());
-    }
+    private List<CommentDto> comments;
 
     @Data
     @AllArgsConstructor
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.exceptions;
+
+/**
+ * Входные данные импорта предметов не удается прочитать: сломан CSV или JSON. Импорт прерывается целиком
+ */
+public class ItemImportFormatException extends RuntimeException {
+    public ItemImportFormatException(String message) {
+        super(message);
+    }
+}
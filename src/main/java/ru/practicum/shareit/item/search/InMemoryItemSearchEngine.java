@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по триграммному индексу в памяти приложения. Не требует изменений схемы базы данных. Индекс строится при
+ * старте и обновляется после коммита транзакций, в которых предметы добавлялись или изменялись. Из базы данных
+ * читается только найденная страница предметов
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemTrigramIndex index = new ItemTrigramIndex();
+
+    @PostConstruct
+    public void buildIndex() {
+        long lastId = 0;
+        List<Item> batch;
+
+        do {
+            batch = itemRepository.findAllByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BUILD_BATCH_SIZE));
+
+            for (Item item : batch) {
+                indexNow(item);
+                lastId = item.getId();
+            }
+        } while (batch.size() == BUILD_BATCH_SIZE);
+
+        log.info("Item search index built, {} available items indexed", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        long[] ids = index.search(text, pageable.getOffset(), pageable.getPageSize());
+
+        if (ids.length == 0) {
+            return List.of();
+        }
+
+        List<Long> pageIds = Arrays.stream(ids).boxed().collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return pageIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .filter(Item::isAvailable)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexNow(item);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexNow(item);
+            }
+        });
+    }
+
+    private void indexNow(Item item) {
+        index.put(item.getId(), item.getName(), item.getDescription(), item.isAvailable());
+    }
+}
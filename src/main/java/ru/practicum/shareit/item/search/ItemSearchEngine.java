@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    /**
+     * Найти доступные для бронирования предметы, в названии или описании которых встречается текст
+     *
+     * @param text     текст для поиска, без учета регистра. Не должен быть пустым
+     * @param pageable страница результата
+     * @return список найденных предметов. Порядок предметов не меняется между запросами одной и той же страницы
+     */
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Сообщить о добавленном или измененном предмете. Движкам, которые ищут прямо в базе данных, ничего делать не нужно
+     *
+     * @param item сохраненный предмет с заполненным id
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Построить шаблон LIKE для поиска подстроки. Символы '%', '_' и '\' в тексте экранируются символом '\', который
+     * запросы поиска объявляют в ESCAPE
+     */
+    static String containsPattern(String text) {
+        String escaped = text
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+
+        return "%" + escaped + "%";
+    }
+}
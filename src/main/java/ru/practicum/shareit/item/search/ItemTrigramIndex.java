@@ -0,0 +1,281 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Триграммный инвертированный индекс по названию и описанию доступных для бронирования предметов. Списки вхождений
+ * хранятся отсортированными массивами long, поэтому результат поиска всегда упорядочен по id. Потокобезопасен
+ */
+class ItemTrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    private final NavigableMap<Long, String> documents = new TreeMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Добавить или обновить предмет. Недоступный для бронирования предмет удаляется из индекса
+     */
+    void put(long id, String name, String description, boolean available) {
+        lock.writeLock().lock();
+
+        try {
+            removeDocument(id);
+
+            if (available) {
+                String document = normalize(name) + FIELD_SEPARATOR + normalize(description);
+                documents.put(id, document);
+
+                for (String gram : grams(document)) {
+                    postings.computeIfAbsent(gram, g -> new PostingList()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удалить предмет из индекса
+     */
+    void remove(long id) {
+        lock.writeLock().lock();
+
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Найти предметы, в названии или описании которых встречается текст
+     *
+     * @param text   текст для поиска, без учета регистра
+     * @param offset количество совпадений, которые нужно пропустить
+     * @param limit  максимальное количество id в результате
+     * @return id найденных предметов по возрастанию
+     */
+    long[] search(String text, long offset, int limit) {
+        String query = normalize(text);
+
+        if (query.isEmpty() || query.indexOf(FIELD_SEPARATOR) >= 0 || limit <= 0) {
+            return EMPTY;
+        }
+
+        lock.readLock().lock();
+
+        try {
+            PageCollector collector = new PageCollector(offset, limit);
+
+            if (query.length() < GRAM_LENGTH) {
+                scan(query, collector);
+            } else {
+                lookup(query, collector);
+            }
+
+            return collector.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void lookup(String query, PageCollector collector) {
+        List<PostingList> lists = new ArrayList<>();
+
+        for (String gram : grams(query)) {
+            PostingList list = postings.get(gram);
+
+            if (list == null) {
+                return;
+            }
+
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList smallest = lists.get(0);
+
+        for (int i = 0; i < smallest.size() && !collector.isFull(); i++) {
+            long id = smallest.get(i);
+
+            if (containsInAll(lists, id) && documents.get(id).contains(query)) {
+                collector.accept(id);
+            }
+        }
+    }
+
+    private void scan(String query, PageCollector collector) {
+        for (Map.Entry<Long, String> document : documents.entrySet()) {
+            if (collector.isFull()) {
+                return;
+            }
+
+            if (document.getValue().contains(query)) {
+                collector.accept(document.getKey());
+            }
+        }
+    }
+
+    private void removeDocument(long id) {
+        String document = documents.remove(id);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String gram : grams(document)) {
+            PostingList list = postings.get(gram);
+
+            if (list != null) {
+                list.remove(id);
+
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static boolean containsInAll(List<PostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM_LENGTH);
+
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                result.add(gram);
+            }
+        }
+
+        return result;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Отсортированный по возрастанию список id без повторов
+     */
+    private static final class PostingList {
+        private long[] ids = new long[2];
+
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position >= 0) {
+                return;
+            }
+
+            int insertAt = -position - 1;
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+
+            if (position < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * Собирает одну страницу совпадений, пропуская первые offset
+     */
+    private static final class PageCollector {
+        private final long offset;
+
+        private final int limit;
+
+        private long skipped;
+
+        private long[] page = new long[16];
+
+        private int size;
+
+        PageCollector(long offset, int limit) {
+            this.offset = offset;
+            this.limit = limit;
+        }
+
+        void accept(long id) {
+            if (skipped < offset) {
+                skipped++;
+                return;
+            }
+
+            if (size == page.length) {
+                page = Arrays.copyOf(page, (int) Math.min((long) size * 2, limit));
+            }
+
+            page[size++] = id;
+        }
+
+        boolean isFull() {
+            return size >= limit;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(page, size);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+    /**
+     * Сообщение с горячего пути. Из таких сообщений INFO и ниже в лог попадает одно из shareit.logging.sample-rate,
+     * отдельно для каждого шаблона сообщения
+     */
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пропускает в лог каждое rate-е сообщение уровня INFO и ниже, помеченное {@link LogMarkers#SAMPLED}. Решение
+ * принимается до форматирования сообщения, поэтому отброшенные сообщения почти ничего не стоят. Подключается в
+ * logback-spring.xml
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private int rate = 1;
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(
+            Marker marker,
+            Logger logger,
+            Level level,
+            String format,
+            Object[] params,
+            Throwable t
+    ) {
+        // Проверки isInfoEnabled() приходят без шаблона и не должны сдвигать счетчик
+        if (rate <= 1 || format == null || marker == null || !marker.contains(LogMarkers.SAMPLED)
+                || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long number = counters.computeIfAbsent(format, key -> new AtomicLong()).getAndIncrement();
+
+        return number % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.metrics.exceptions.SqlBudgetExceededException;
+
+import java.util.Map;
+
+/**
+ * Проверяет количество select-запросов на один HTTP-запрос и на один вызов сервиса по бюджетам из
+ * {@link SqlBudgetProperties}. Превышение записывается в метрику shareit.sql.budget.overrun, максимум которой по тегу
+ * name показывает худшие эндпоинты и методы, и, в зависимости от режима, пишется в лог или завершает запрос ошибкой
+ */
+@Slf4j
+@Aspect
+@RequiredArgsConstructor
+public class SqlBudgetGuard {
+    public static final String OVERRUN_METRIC = "shareit.sql.budget.overrun";
+
+    private final SqlBudgetProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Завершает ли превышение бюджета запрос ошибкой. В этом режиме ответ нужно задержать до проверки
+     */
+    public boolean isFailMode() {
+        return properties.getMode() == SqlBudgetProperties.Mode.FAIL;
+    }
+
+    /**
+     * Проверить завершенный HTTP-запрос
+     *
+     * @param method  HTTP-метод
+     * @param uri     шаблон пути
+     * @param queries количество select-запросов за время обработки
+     */
+    public void checkRequest(String method, String uri, int queries) {
+        if (properties.getMode() == SqlBudgetProperties.Mode.OFF) {
+            return;
+        }
+
+        Map<String, Integer> budgets = properties.getRequests().getOrDefault(method.toLowerCase(), Map.of());
+        int budget = budgets.getOrDefault(uri, properties.getRequestDefault());
+        check("request", method + " " + uri, queries, budget);
+    }
+
+    @Around("@within(org.springframework.stereotype.Service)")
+    public Object checkServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (properties.getMode() == SqlBudgetProperties.Mode.OFF || properties.getServices().isEmpty()) {
+            return joinPoint.proceed();
+        }
+
+        String name = ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        Integer budget = properties.getServices().get(name);
+
+        if (budget == null) {
+            return joinPoint.proceed();
+        }
+
+        Object result;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.openScope()) {
+            result = joinPoint.proceed();
+            check("service", name, scope.getQueryCount(), budget);
+        }
+
+        return result;
+    }
+
+    private void check(String scope, String name, int queries, int budget) {
+        if (budget <= 0 || queries <= budget) {
+            return;
+        }
+
+        DistributionSummary.builder(OVERRUN_METRIC)
+                .description("Select queries over the budget of one HTTP request or service call")
+                .tag("scope", scope)
+                .tag("name", name)
+                .register(meterRegistry)
+                .record(queries - budget);
+
+        String message = String.format("%s %s made %d select queries, budget is %d", scope, name, queries, budget);
+
+        if (properties.getMode() == SqlBudgetProperties.Mode.FAIL) {
+            throw new SqlBudgetExceededException(message);
+        }
+
+        log.warn(message);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бюджеты select-запросов на один HTTP-запрос и на один вызов сервиса. Пример:
+ * <pre>
+ * shareit.sql.budget.mode=fail
+ * shareit.sql.budget.request-default=15
+ * shareit.sql.budget.requests.get[/bookings]=2
+ * shareit.sql.budget.services[BookingService.getAllBookingsCurrentUser]=2
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.sql.budget")
+public class SqlBudgetProperties {
+    /**
+     * Что делать при превышении бюджета. FAIL буферизует каждый ответ до проверки бюджета и предназначен для тестов
+     */
+    private Mode mode = Mode.OFF;
+
+    /**
+     * Бюджет HTTP-запроса, для шаблона пути которого нет своего бюджета. 0 - без ограничения
+     */
+    private int requestDefault;
+
+    /**
+     * Бюджеты HTTP-запросов: метод в нижнем регистре, затем шаблон пути
+     */
+    private Map<String, Map<String, Integer>> requests = new HashMap<>();
+
+    /**
+     * Бюджеты вызовов сервисов по ключу "ПростоеИмяКласса.метод". Вызовы остальных методов не проверяются
+     */
+    private Map<String, Integer> services = new HashMap<>();
+
+    public enum Mode {
+        OFF,
+        WARN,
+        FAIL
+    }
+}
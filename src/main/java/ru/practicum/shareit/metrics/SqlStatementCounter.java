@@ -0,0 +1,109 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы, которые Hibernate отправляет в базу: всего по типам в метрике shareit.sql.statements и в
+ * открытых на текущем потоке областях, например на время HTTP-запроса или вызова сервиса
+ */
+public class SqlStatementCounter implements StatementInspector {
+    public static final String STATEMENTS_METRIC = "shareit.sql.statements";
+
+    private static final ThreadLocal<List<Scope>> OPEN_SCOPES = ThreadLocal.withInitial(ArrayList::new);
+
+    private final Map<String, Counter> counters;
+
+    private final Counter otherStatements;
+
+    public SqlStatementCounter(MeterRegistry meterRegistry) {
+        counters = Map.of(
+                "select", counter(meterRegistry, "select"),
+                "insert", counter(meterRegistry, "insert"),
+                "update", counter(meterRegistry, "update"),
+                "delete", counter(meterRegistry, "delete")
+        );
+        otherStatements = counter(meterRegistry, "other");
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String type = statementType(sql);
+        boolean isQuery = "select".equals(type);
+        counters.getOrDefault(type, otherStatements).increment();
+
+        for (Scope scope : OPEN_SCOPES.get()) {
+            scope.count++;
+
+            if (isQuery) {
+                scope.queryCount++;
+            }
+        }
+
+        return sql;
+    }
+
+    /**
+     * Начать считать запросы текущего потока. Области могут быть вложенными, запрос учитывается во всех открытых
+     *
+     * @return область, которую нужно закрыть на том же потоке
+     */
+    public static Scope openScope() {
+        Scope scope = new Scope();
+        OPEN_SCOPES.get().add(scope);
+
+        return scope;
+    }
+
+    private static String statementType(String sql) {
+        String statement = sql.stripLeading();
+        int end = 0;
+
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+
+        return statement.substring(0, end).toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder(STATEMENTS_METRIC)
+                .description("SQL statements sent by Hibernate")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private int count;
+
+        private int queryCount;
+
+        private Scope() {
+        }
+
+        /**
+         * Количество запросов с момента открытия области
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Количество select-запросов с момента открытия области
+         */
+        public int getQueryCount() {
+            return queryCount;
+        }
+
+        @Override
+        public void close() {
+            OPEN_SCOPES.get().remove(this);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Записывает количество SQL-запросов на один HTTP-запрос в метрику shareit.sql.statements.per.request с тегами метода
+ * и шаблона пути и сверяет количество select-запросов с бюджетом в {@link SqlBudgetGuard}. В режиме FAIL ответ
+ * буферизуется и отправляется только после проверки, поэтому превышение бюджета завершает запрос ошибкой, а не
+ * исключением после уже отправленного ответа. Потоковые ответы в этом режиме тоже буферизуются целиком и отправляются
+ * в асинхронной диспетчеризации, поэтому FAIL включается только в профиле test
+ */
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_PER_REQUEST_METRIC = "shareit.sql.statements.per.request";
+
+    private final MeterRegistry meterRegistry;
+
+    private final SqlBudgetGuard sqlBudgetGuard;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            copyBufferedBody(request, response);
+
+            return;
+        }
+
+        HttpServletResponse filteredResponse = sqlBudgetGuard.isFailMode()
+                ? new ContentCachingResponseWrapper(response)
+                : response;
+        SqlStatementCounter.Scope scope = SqlStatementCounter.openScope();
+
+        try {
+            filterChain.doFilter(request, filteredResponse);
+        } finally {
+            scope.close();
+
+            DistributionSummary.builder(STATEMENTS_PER_REQUEST_METRIC)
+                    .description("SQL statements sent by Hibernate while handling one HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request))
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry)
+                    .record(scope.getCount());
+        }
+
+        sqlBudgetGuard.checkRequest(request.getMethod(), uri(request), scope.getQueryCount());
+        copyBufferedBody(request, filteredResponse);
+    }
+
+    /**
+     * Отправить буферизованный ответ. У асинхронного запроса ответ дописывается после первой диспетчеризации и
+     * отправляется в последней
+     */
+    private static void copyBufferedBody(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ContentCachingResponseWrapper bufferedResponse =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+
+        if (bufferedResponse != null && !request.isAsyncStarted()) {
+            bufferedResponse.copyBodyToResponse();
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
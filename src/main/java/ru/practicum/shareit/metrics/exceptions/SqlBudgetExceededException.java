@@ -0,0 +1,7 @@
+package ru.practicum.shareit.metrics.exceptions;
+
+public class SqlBudgetExceededException extends RuntimeException {
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
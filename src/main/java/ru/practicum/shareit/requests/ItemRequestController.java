@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.requests.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithResponsesDto;
+import ru.practicum.shareit.user.SharerUserId;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -20,7 +21,7 @@ public class ItemRequestController {
 
     @PostMapping
     public ItemRequestDto addItemRequest(
-            @RequestHeader("X-Sharer-User-Id") long userId,
+            @SharerUserId long userId,
             @RequestBody @Valid ItemRequestCreateDto itemRequestCreateDto
     ) {
         return requestService.addItemRequest(itemRequestCreateDto, userId);
@@ -28,9 +29,11 @@ public class ItemRequestController {
 
     @GetMapping
     public List<ItemRequestWithResponsesDto> getAllItemRequestsWithResponsesCurrentUser(
-            @RequestHeader("X-Sharer-User-Id") long userId
+            @SharerUserId long userId,
+            @RequestParam(defaultValue = "0") @Min(0) Integer from,
+            @RequestParam(defaultValue = "100") @Min(1) Integer size
     ) {
-        return requestService.getAllItemRequestsWithResponsesCurrentUser(userId);
+        return requestService.getAllItemRequestsWithResponsesCurrentUser(userId, from, size);
     }
 
     @GetMapping("/all")
@@ -1,16 +1,37 @@
 package ru.practicum.shareit.requests;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequesterOrderByCreatedDesc(User requester);
 
-    @Query("SELECT i FROM Item i WHERE i.request=:request")
-    List<Item> getAllItemByRequestId(@Param("request") ItemRequest request);
+    List<ItemRequest> findAllByRequesterId(long requesterId, Pageable pageable);
+
+    /**
+     * Страница запросов вместе с их авторами, которых показывает ItemRequestMapper.toItemRequestDto
+     */
+    @Override
+    @EntityGraph(attributePaths = "requester")
+    Page<ItemRequest> findAll(Pageable pageable);
+
+    /**
+     * Получить ответы сразу на несколько запросов одним запросом
+     *
+     * @param requestIds идентификаторы запросов
+     * @return вещи, добавленные в ответ на запросы, по возрастанию id
+     */
+    @Query("SELECT i.id AS id, i.name AS name, i.owner.id AS ownerId, i.request.id AS requestId " +
+            "FROM Item i " +
+            "WHERE i.request.id IN :requestIds " +
+            "ORDER BY i.id")
+    List<ItemRequestResponse> findResponsesByRequestIds(@Param("requestIds") Collection<Long> requestIds);
 }
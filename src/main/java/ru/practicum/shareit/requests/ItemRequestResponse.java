@@ -0,0 +1,15 @@
+package ru.practicum.shareit.requests;
+
+/**
+ * Вещь, добавленная в ответ на запрос. Идентификаторы владельца и запроса читаются из внешних ключей без загрузки
+ * связанных сущностей
+ */
+public interface ItemRequestResponse {
+    Long getId();
+
+    String getName();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
@@ -5,7 +5,9 @@ import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestWithResponsesDto;
 import ru.practicum.shareit.user.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface RequestService {
     /**
@@ -19,9 +21,17 @@ public interface RequestService {
     List<ItemRequest> getAllItemRequestsByRequester(User requester);
 
     /**
-     * Получить список запросов текущего пользователя вместе с ответами
+     * Получить список запросов текущего пользователя вместе с ответами, от новых к старым
+     *
+     * @param currentUserId - идентификатор текущего пользователя
+     * @param from          - номер страницы
+     * @param size          - количество запросов на странице
      */
-    List<ItemRequestWithResponsesDto> getAllItemRequestsWithResponsesCurrentUser(long currentUserId);
+    List<ItemRequestWithResponsesDto> getAllItemRequestsWithResponsesCurrentUser(
+            long currentUserId,
+            int from,
+            int size
+    );
 
     /**
      * Получить запрос по id вместе с ответами
@@ -33,6 +43,13 @@ public interface RequestService {
      */
     ItemRequest getItemRequestById(long id);
 
+    /**
+     * Получить запросы по id одним запросом к базе
+     *
+     * @return найденные запросы по их id. Неизвестных id в результате нет
+     */
+    Map<Long, ItemRequest> getItemRequestsByIds(Collection<Long> ids);
+
     /**
      * Получить список запросов, созданные другими пользователями
      *
@@ -1,12 +1,13 @@
 package ru.practicum.shareit.requests;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.metrics.MetricsConfiguration;
 import ru.practicum.shareit.requests.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.dto.ItemRequestMapper;
@@ -16,11 +17,15 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = MetricsConfiguration.SERVICE_TIMER, histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
@@ -50,35 +55,57 @@ public class RequestServiceImpl implements RequestService {
     }
 
     @Override
-    public List<ItemRequestWithResponsesDto> getAllItemRequestsWithResponsesCurrentUser(long currentUserId) {
-        User currentUser = userService.getUserById(currentUserId);
+    public List<ItemRequestWithResponsesDto> getAllItemRequestsWithResponsesCurrentUser(
+            long currentUserId,
+            int from,
+            int size
+    ) {
+        userService.getUserById(currentUserId);
+
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterId(
+                currentUserId, PageRequest.of(from, size, Sort.by("created").descending())
+        );
 
-        List<ItemRequest> itemRequests = getAllItemRequestsByRequester(currentUser);
-        return itemRequests.stream()
-                .map(this::addResponsesForItemRequest)
-                .collect(Collectors.toList());
+        return addResponsesForItemRequests(itemRequests);
     }
 
     @Override
     public ItemRequestWithResponsesDto getItemRequestWithResponsesById(long id) {
         ItemRequest itemRequest = getItemRequestById(id);
 
-        return addResponsesForItemRequest(itemRequest);
+        return addResponsesForItemRequests(List.of(itemRequest)).get(0);
     }
 
-    private ItemRequestWithResponsesDto addResponsesForItemRequest(ItemRequest itemRequest) {
-        List<Item> responses = itemRequestRepository.getAllItemByRequestId(itemRequest);
+    /**
+     * Добавить ответы к запросам. Ответы на все запросы выбираются одним запросом и группируются по id запроса
+     */
+    private List<ItemRequestWithResponsesDto> addResponsesForItemRequests(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
 
-        ItemRequestWithResponsesDto itemRequestWithResponses = ItemRequestMapper
-                .toItemRequestWithResponsesDto(itemRequest);
-
-        List<ItemRequestWithResponsesDto.Item> itemsForItemRequestWithResponsesDto = responses.stream()
-                .map(ItemRequestWithResponsesDto.Item::new)
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
                 .collect(Collectors.toList());
 
-        itemRequestWithResponses.setResponses(itemsForItemRequestWithResponsesDto);
+        Map<Long, List<ItemRequestWithResponsesDto.Item>> responsesByRequestId = itemRequestRepository
+                .findResponsesByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(
+                        ItemRequestResponse::getRequestId,
+                        Collectors.mapping(ItemRequestWithResponsesDto.Item::new, Collectors.toList())
+                ));
 
-        return itemRequestWithResponses;
+        return itemRequests.stream()
+                .map(itemRequest -> {
+                    ItemRequestWithResponsesDto itemRequestWithResponses = ItemRequestMapper
+                            .toItemRequestWithResponsesDto(itemRequest);
+                    itemRequestWithResponses.setResponses(
+                            responsesByRequestId.getOrDefault(itemRequest.getId(), List.of())
+                    );
+
+                    return itemRequestWithResponses;
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -88,6 +115,12 @@ public class RequestServiceImpl implements RequestService {
         );
     }
 
+    @Override
+    public Map<Long, ItemRequest> getItemRequestsByIds(Collection<Long> ids) {
+        return itemRequestRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
     @Override
     public List<ItemRequestDto> getAllItemRequests(int from, int size) {
         return itemRequestRepository.findAll(PageRequest.of(from, size, Sort.by("created").descending()))
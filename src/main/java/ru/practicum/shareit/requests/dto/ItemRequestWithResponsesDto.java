@@ -2,6 +2,7 @@ package ru.practicum.shareit.requests.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import ru.practicum.shareit.requests.ItemRequestResponse;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,5 +31,11 @@ public class ItemRequestWithResponsesDto {
             this.name = item.getName();
             this.ownerId = item.getOwner().getId();
         }
+
+        public Item(ItemRequestResponse response) {
+            this.id = response.getId();
+            this.name = response.getName();
+            this.ownerId = response.getOwnerId();
+        }
     }
 }
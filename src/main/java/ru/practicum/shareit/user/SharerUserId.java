@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Идентификатор текущего пользователя из заголовка X-Sharer-User-Id. Заголовок разбирается, а пользователь находится
+ * один раз за HTTP-запрос в {@link SharerUserIdArgumentResolver}
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SharerUserId {
+}
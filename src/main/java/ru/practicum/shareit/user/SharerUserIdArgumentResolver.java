@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Разбирает заголовок X-Sharer-User-Id для параметров, помеченных {@link SharerUserId}, и один раз за запрос находит
+ * пользователя через {@link UserService#getUserById}. Снимок пользователя остается в атрибутах запроса, поэтому
+ * сервисы, которые получают пользователя по тому же id, не обращаются повторно ни к кэшу, ни к базе. Для неизвестного
+ * пользователя запрос завершается ответом 404 еще до вызова контроллера
+ */
+@RequiredArgsConstructor
+public class SharerUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final String HEADER = "X-Sharer-User-Id";
+
+    private static final String ATTRIBUTE = SharerUserIdArgumentResolver.class.getName() + ".userId";
+
+    private final ObjectProvider<UserService> userService;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+
+        return parameter.hasParameterAnnotation(SharerUserId.class) && (type == long.class || type == Long.class);
+    }
+
+    @Override
+    public Object resolveArgument(
+            MethodParameter parameter,
+            ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest,
+            WebDataBinderFactory binderFactory
+    ) throws Exception {
+        Object resolvedUserId = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        if (resolvedUserId != null) {
+            return resolvedUserId;
+        }
+
+        String header = webRequest.getHeader(HEADER);
+
+        if (header == null) {
+            throw new MissingRequestHeaderException(HEADER, parameter);
+        }
+
+        Long userId;
+
+        try {
+            userId = Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            throw new MethodArgumentTypeMismatchException(header, Long.class, HEADER, parameter, e);
+        }
+
+        UserService users = userService.getIfAvailable();
+
+        if (users != null) {
+            users.getUserById(userId);
+        }
+
+        webRequest.setAttribute(ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+
+        return userId;
+    }
+}
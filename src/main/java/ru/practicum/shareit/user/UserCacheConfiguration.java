@@ -0,0 +1,39 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Кэш пользователей по id. Ограничен по размеру и времени жизни записи. Запись и удаление из кэша выполняются только
+ * после коммита транзакции, поэтому в кэш не попадают пользователи из откаченных транзакций. Статистика попаданий,
+ * промахов и вытеснений доступна в метриках cache.gets и cache.evictions с тегом cache=users
+ */
+@Configuration
+@EnableCaching
+public class UserCacheConfiguration {
+
+    public static final String USERS_CACHE = "users";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${shareit.user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.user.cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_CACHE);
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
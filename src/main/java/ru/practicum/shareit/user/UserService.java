@@ -1,35 +1,76 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.logging.LogMarkers;
+import ru.practicum.shareit.metrics.MetricsConfiguration;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
-import javax.persistence.EntityNotFoundException;
 import java.util.List;
 
+import static ru.practicum.shareit.user.UserCacheConfiguration.USERS_CACHE;
+
 @Slf4j
 @Service
+@Timed(value = MetricsConfiguration.SERVICE_TIMER, histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final String REQUEST_USER_ATTRIBUTE = UserService.class.getName() + ".user.";
+
     private final UserRepository userRepository;
 
+    private final CacheManager cacheManager;
+
     /**
-     * Получить пользователя по id
+     * Получить пользователя по id. Кэш хранит неизменяемый снимок пользователя, и каждое попадание в кэш возвращает
+     * новый экземпляр, не связанный с текущим контекстом персистентности. Его изменения не сохраняются и не видны
+     * другим вызовам. Внутри HTTP-запроса снимок найденного пользователя сохраняется в атрибутах запроса, и повторные
+     * вызовы с тем же id, в том числе после {@link SharerUserIdArgumentResolver}, не обращаются ни к кэшу, ни к базе
      *
      * @param id идентификатор пользвателя
      * @return найденного пользователя
-     * @throws EntityNotFoundException если пользователь по id не найден
+     * @throws UserNotFoundException если пользователь по id не найден
      */
     public User getUserById(long id) {
-        log.info("Get user by id:{}", id);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        UserSnapshot resolved = request == null
+                ? null
+                : (UserSnapshot) request.getAttribute(REQUEST_USER_ATTRIBUTE + id, RequestAttributes.SCOPE_REQUEST);
+
+        if (resolved != null) {
+            return resolved.toUser();
+        }
+
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        UserSnapshot cached = cache.get(id, UserSnapshot.class);
+
+        if (cached != null) {
+            rememberRequestUser(request, cached);
+
+            return cached.toUser();
+        }
+
+        log.info(LogMarkers.SAMPLED, "Get user by id:{}", id);
 
-        return userRepository.findById(id).orElseThrow(
+        User user = userRepository.findById(id).orElseThrow(
                 () -> new UserNotFoundException(String.format("User with id:%s not found.", id))
         );
+        UserSnapshot snapshot = UserSnapshot.of(user);
+        cache.put(id, snapshot);
+        rememberRequestUser(request, snapshot);
+
+        return user;
     }
 
     public List<User> getAll() {
@@ -41,11 +82,14 @@ public class UserService {
      *
      * @param user пользователь
      * @return пользователя с сгенерированным полем id
+     * @throws javax.validation.ConstraintViolationException если email пользователя некорректный
+     * @throws DataIntegrityViolationException               если email пустой или уже занят
      */
     public User addUser(User user) {
         log.info("Add {}", user);
 
-        return userRepository.save(user);
+        // id выдает последовательность, и без сброса INSERT и проверки пользователя выполнились бы только при фиксации
+        return userRepository.saveAndFlush(user);
     }
 
     /**
@@ -55,8 +99,10 @@ public class UserService {
      * @return обновленного пользователя
      * @throws UserNotFoundException если в хранилище нет пользователя с одинаковым полем id с updatedUser
      */
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public User updateUser(long id, User updatedUser) {
         log.info("Update user with email:{} on {}", updatedUser.getEmail(), updatedUser);
+        forgetRequestUser(id);
 
         User user = userRepository.findById(id).orElseThrow(
                 () -> new UserNotFoundException(String.format("User with id:%s not found.", id))
@@ -79,9 +125,25 @@ public class UserService {
      * @param id идентификатор пользователя
      * @throws UserNotFoundException если пользователь с переданным id не найден в хранилище
      */
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id")
     public void deleteUser(long id) {
         log.info("Delete user with id:{}", id);
+        forgetRequestUser(id);
 
         userRepository.deleteById(id);
     }
+
+    private void rememberRequestUser(RequestAttributes request, UserSnapshot user) {
+        if (request != null) {
+            request.setAttribute(REQUEST_USER_ATTRIBUTE + user.getId(), user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private void forgetRequestUser(long id) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+
+        if (request != null) {
+            request.removeAttribute(REQUEST_USER_ATTRIBUTE + id, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Неизменяемая копия пользователя для кэша USERS_CACHE. Сущность User в кэше была бы одним экземпляром на все потоки
+ * и сессии, поэтому кэш хранит снимок, а каждый вызов получает из него новый User
+ */
+@Value
+class UserSnapshot {
+    Long id;
+
+    String name;
+
+    String email;
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getName(), user.getEmail());
+    }
+
+    User toUser() {
+        return new User(id, name, email);
+    }
+}
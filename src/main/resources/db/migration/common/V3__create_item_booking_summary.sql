@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_end TIMESTAMP WITHOUT TIME ZONE,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_start TIMESTAMP WITHOUT TIME ZONE,
+  valid_until TIMESTAMP WITHOUT TIME ZONE,
+  version BIGINT DEFAULT 0 NOT NULL,
+  CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+  CONSTRAINT FK_ITEM_BOOKING_SUMMARY_ON_ITEM FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summary_valid_until ON item_booking_summary (valid_until);
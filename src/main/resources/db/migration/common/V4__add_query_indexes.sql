@@ -0,0 +1,20 @@
+-- Списки броней арендатора: все состояния, фильтр по статусу и курсор по id
+CREATE INDEX IF NOT EXISTS ix_booking_booker_id ON bookings (booker_id, id);
+CREATE INDEX IF NOT EXISTS ix_booking_booker_status_id ON bookings (booker_id, status, id);
+
+-- Списки броней владельца (через items.owner_id), бронирования предмета и проверка автора комментария
+CREATE INDEX IF NOT EXISTS ix_booking_item_id ON bookings (item_id, id);
+
+-- Последняя и следующая брони предмета, пересечение периодов
+CREATE INDEX IF NOT EXISTS ix_booking_item_start ON bookings (item_id, start_date_time);
+CREATE INDEX IF NOT EXISTS ix_booking_item_end ON bookings (item_id, end_date_time);
+
+-- Комментарии предмета по курсору
+CREATE INDEX IF NOT EXISTS ix_comment_item_id ON comments (item_id, id);
+
+-- Ответы на запросы
+CREATE INDEX IF NOT EXISTS ix_item_request_id ON items (request_id);
+
+-- Запросы пользователя и запросы всех пользователей от новых к старым
+CREATE INDEX IF NOT EXISTS ix_item_request_requester_created ON item_requests (requester_id, created);
+CREATE INDEX IF NOT EXISTS ix_item_request_created ON item_requests (created);
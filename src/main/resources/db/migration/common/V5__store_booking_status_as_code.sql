@@ -0,0 +1,20 @@
+-- Статус брони хранится кодом BookingStatus.getCode(): WAITING 0, APPROVED 1, REJECTED 2, CANCELED 3
+ALTER TABLE bookings ADD COLUMN status_code SMALLINT;
+
+UPDATE bookings SET status_code = CASE status
+  WHEN 'WAITING' THEN 0
+  WHEN 'APPROVED' THEN 1
+  WHEN 'REJECTED' THEN 2
+  WHEN 'CANCELED' THEN 3
+END;
+
+ALTER TABLE bookings ALTER COLUMN status_code SET NOT NULL;
+
+-- Индексы и ограничения, построенные по строковому статусу, удаляются вместе со столбцом или явно и создаются заново
+DROP INDEX IF EXISTS ix_booking_booker_status_id;
+
+ALTER TABLE bookings DROP COLUMN status;
+
+ALTER TABLE bookings RENAME COLUMN status_code TO status;
+
+CREATE INDEX IF NOT EXISTS ix_booking_booker_status_id ON bookings (booker_id, status, id);
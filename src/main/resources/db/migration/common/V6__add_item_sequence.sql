@@ -0,0 +1,3 @@
+-- Идентификаторы предметов выдает последовательность блоками по INCREMENT BY (оптимизатор pooled-lo Hibernate),
+-- поэтому предметы вставляются пакетами. Identity столбца остается для строк, вставленных без id
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
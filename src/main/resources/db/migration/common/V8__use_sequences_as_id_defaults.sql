@@ -0,0 +1,17 @@
+-- Id выдают последовательности из V6 и V7, а identity столбцов считали бы отдельно и выдавали бы id, уже занятые
+-- блоками Hibernate. Строки, вставленные без id, теперь тоже берут значение из последовательности. Каждая такая
+-- вставка забирает целый блок из INCREMENT BY значений, поэтому с блоками pooled-lo не пересекается
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE item_requests ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE item_requests ALTER COLUMN id SET DEFAULT nextval('item_requests_seq');
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
@@ -0,0 +1,44 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_booking_item_period;
+
+-- Исключающее ограничение нельзя добавить как NOT VALID, поэтому существующие пересечения разрешаются до его создания.
+-- Бронь с началом позже окончания не образует период и отклоняется. Из пересекающихся ожидающих и подтвержденных
+-- броней одного предмета остаются подтвержденные, а среди броней с одинаковым статусом - созданные раньше, с меньшим
+-- id. Остальные отклоняются. Бронь сравнивается только с уже оставленными, поэтому отклоненная бронь не вытесняет
+-- следующие за ней
+UPDATE bookings SET status = 'REJECTED'
+WHERE status IN ('WAITING', 'APPROVED') AND start_date_time > end_date_time;
+
+CREATE TEMPORARY TABLE kept_bookings (
+  item_id BIGINT NOT NULL,
+  period TSRANGE NOT NULL
+);
+
+DO $$
+DECLARE
+  booking RECORD;
+BEGIN
+  FOR booking IN
+    SELECT id, item_id, tsrange(start_date_time, end_date_time) AS period
+    FROM bookings
+    WHERE status IN ('WAITING', 'APPROVED')
+    ORDER BY item_id, CASE status WHEN 'APPROVED' THEN 0 ELSE 1 END, id
+  LOOP
+    IF EXISTS (
+      SELECT 1 FROM kept_bookings k WHERE k.item_id = booking.item_id AND k.period && booking.period
+    ) THEN
+      UPDATE bookings SET status = 'REJECTED' WHERE id = booking.id;
+    ELSE
+      INSERT INTO kept_bookings (item_id, period) VALUES (booking.item_id, booking.period);
+    END IF;
+  END LOOP;
+END
+$$;
+
+DROP TABLE kept_bookings;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_booking_item_period EXCLUDE USING gist (
+  item_id WITH =,
+  tsrange(start_date_time, end_date_time) WITH &&
+) WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,2 @@
+-- Брони, ожидающие подтверждения, составляют малую часть таблицы: владелец просматривает их по своим предметам
+CREATE INDEX IF NOT EXISTS ix_booking_item_waiting ON bookings (item_id, id) WHERE status = 'WAITING';
@@ -0,0 +1,12 @@
+-- Исключающее ограничение и частичный индекс удалены вместе со строковым столбцом status в V5. Пересечения броней
+-- разрешены в V4_2, и до V5 ограничение не допускало новых, поэтому данные проверять заново не нужно
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_booking_item_period;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_booking_item_period EXCLUDE USING gist (
+  item_id WITH =,
+  tsrange(start_date_time, end_date_time) WITH &&
+) WHERE (status IN (0, 1));
+
+DROP INDEX IF EXISTS ix_booking_item_waiting;
+
+CREATE INDEX ix_booking_item_waiting ON bookings (item_id, id) WHERE status = 0;
@@ -0,0 +1,2 @@
+-- Новые id начинаются после уже выданных identity. На H2 база создается пустой, и сдвигать нечего
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM items), false);
@@ -0,0 +1,93 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Миграция V4_2 на Postgres с пересекающимися бронями, накопленными до появления исключающего ограничения. Без Docker
+ * тест пропускается
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookingPeriodMigrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withCommand("postgres", "-c", "fsync=off");
+
+    @Test
+    public void overlappingBookingsAreRejectedBeforeConstraintIsAdded() throws SQLException {
+        migrate("4.1");
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (id, name, email) VALUES " +
+                    "(1, 'Owner', 'owner@example.com'), (2, 'Booker', 'booker@example.com')");
+            statement.execute("INSERT INTO items (id, name, description, available, owner_id) VALUES " +
+                    "(1, 'Drill', 'Drill', true, 1), (2, 'Saw', 'Saw', true, 1)");
+            // Подтвержденная бронь 2 остается, хотя создана позже ожидающей брони 1. Бронь 3 начинается в момент
+            // окончания брони 2 и с ней не пересекается. Бронь 5 отклоняется из-за брони 4, а бронь 6 пересекается
+            // только с отклоненной 5 и остается
+            statement.execute("INSERT INTO bookings (id, start_date_time, end_date_time, item_id, booker_id, status) " +
+                    "VALUES " +
+                    "(1, '2030-01-01', '2030-01-03', 1, 2, 'WAITING'), " +
+                    "(2, '2030-01-02', '2030-01-04', 1, 2, 'APPROVED'), " +
+                    "(3, '2030-01-04', '2030-01-06', 1, 2, 'WAITING'), " +
+                    "(4, '2030-01-01', '2030-01-03', 2, 2, 'WAITING'), " +
+                    "(5, '2030-01-02', '2030-01-05', 2, 2, 'WAITING'), " +
+                    "(6, '2030-01-04', '2030-01-06', 2, 2, 'WAITING'), " +
+                    "(7, '2030-01-01', '2030-01-06', 2, 2, 'REJECTED'), " +
+                    "(8, '2030-02-02', '2030-02-01', 2, 2, 'WAITING')");
+        }
+
+        migrate("latest");
+
+        Map<Long, BookingStatus> statuses = new HashMap<>();
+
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, status FROM bookings")) {
+            while (resultSet.next()) {
+                statuses.put(resultSet.getLong("id"), BookingStatus.fromCode(resultSet.getShort("status")));
+            }
+        }
+
+        assertEquals(
+                Map.of(
+                        1L, BookingStatus.REJECTED,
+                        2L, BookingStatus.APPROVED,
+                        3L, BookingStatus.WAITING,
+                        4L, BookingStatus.WAITING,
+                        5L, BookingStatus.REJECTED,
+                        6L, BookingStatus.WAITING,
+                        7L, BookingStatus.REJECTED,
+                        8L, BookingStatus.REJECTED
+                ),
+                statuses
+        );
+    }
+
+    private static void migrate(String target) {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target)
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,282 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.requests.RequestService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Планы горячих запросов на Postgres со схемой из миграций и данными, по объему похожими на рабочие. Запросы строит
+ * Hibernate: тест вызывает сервисы и репозитории, а планы выполненных запросов с настоящими параметрами пишет в журнал
+ * сервера расширение auto_explain. Последовательное сканирование разрешено, поэтому индекс попадает в план, только
+ * если планировщик по собранной ANALYZE статистике считает его выгоднее. Без Docker тест пропускается
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+    private static final int USERS = 2_000;
+
+    private static final int REQUESTS = 20_000;
+
+    private static final int ITEMS = 20_000;
+
+    private static final int BOOKINGS = 100_000;
+
+    private static final int COMMENTS = 50_000;
+
+    private static final long USER_ID = 7;
+
+    /**
+     * Сколько ждать, пока журнал контейнера дойдет до конца запросов сценария
+     */
+    private static final Duration LOG_TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withCommand(
+                    "postgres",
+                    "-c", "fsync=off",
+                    "-c", "shared_preload_libraries=auto_explain",
+                    "-c", "auto_explain.log_min_duration=0"
+            );
+
+    private static Connection connection;
+
+    private static int scenarios;
+
+    private final BookingService bookingService;
+
+    private final BookingRepository bookingRepository;
+
+    private final ItemService itemService;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    private final RequestService requestService;
+
+    private final ItemRequestRepository itemRequestRepository;
+
+    /**
+     * Профиль test настраивает H2, поэтому база и Postgres-миграции задаются здесь
+     */
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/common,classpath:db/migration/{vendor}");
+        registry.add("shareit.item.search.engine", () -> "trigram");
+    }
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+
+        seed();
+    }
+
+    @AfterAll
+    static void closeConnection() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * У каждого пользователя 10 предметов, 10 запросов, 50 броней и 25 комментариев. Брони одного предмета идут раз в
+     * 10 дней, от 25 дней назад до 15 дней вперед, и не пересекаются. Запросы и комментарии создаются по минуте друг за
+     * другом, поэтому их порядок на диске совпадает с порядком created, как у накопленных за время работы данных
+     */
+    private static void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("INSERT INTO users (id, name, email) " +
+                    "SELECT g, 'User ' || g, 'user' || g || '@example.com' FROM generate_series(1, %d) g", USERS));
+            statement.execute(String.format("INSERT INTO item_requests (id, description, requester_id, created) " +
+                    "SELECT g, 'Request ' || g, 1 + (g - 1) %% %d, now() - (%d - g) * interval '1 minute' " +
+                    "FROM generate_series(1, %d) g", USERS, REQUESTS, REQUESTS));
+            statement.execute(String.format("INSERT INTO items " +
+                    "(id, name, description, available, owner_id, request_id) " +
+                    "SELECT g, CASE WHEN g %% 500 = 0 THEN 'Drill ' ELSE 'Item ' END || g, " +
+                    "'Description of item ' || g, g %% 10 <> 0, 1 + (g - 1) %% %d, " +
+                    "CASE WHEN g %% 4 = 0 THEN g / 4 END " +
+                    "FROM generate_series(1, %d) g", USERS, ITEMS));
+            statement.execute(String.format("INSERT INTO bookings " +
+                    "(id, start_date_time, end_date_time, item_id, booker_id, status) " +
+                    "SELECT g, s.start, s.start + interval '2 days', 1 + (g - 1) %% %d, 1 + (g - 1) %% %d, g %% 4 " +
+                    "FROM generate_series(1, %d) g, " +
+                    "LATERAL (SELECT date_trunc('day', now()) + ((g - 1) / %d * 10 - 25) * interval '1 day' " +
+                    "AS start) s",
+                    ITEMS, USERS, BOOKINGS, ITEMS));
+            statement.execute(String.format("INSERT INTO comments (id, text, item_id, author_id, created) " +
+                    "SELECT g, 'Comment ' || g, 1 + (g - 1) %% %d, 1 + (g - 1) %% %d, " +
+                    "now() - (%d - g) * interval '1 minute' " +
+                    "FROM generate_series(1, %d) g", ITEMS, USERS, COMMENTS, COMMENTS));
+            statement.execute(String.format("INSERT INTO item_booking_summary (item_id, valid_until) " +
+                    "SELECT g, now() + (g %% 1440 - 60) * interval '1 minute' FROM generate_series(1, %d) g", ITEMS));
+            statement.execute("ANALYZE");
+        }
+    }
+
+    /**
+     * Сценарии и индексы, которые должны быть в планах их запросов. Индекс задается регулярным выражением, если
+     * подходит любой из нескольких
+     */
+    static Stream<Arguments> hotQueries() {
+        LocalDateTime now = LocalDateTime.now();
+
+        return Stream.of(
+                arguments("bookings of booker",
+                        (HotQuery) test -> test.bookingService.getAllBookingsCurrentUser(USER_ID, "ALL", null, 0, 10),
+                        List.of("ix_booking_booker_id")),
+                arguments("bookings of booker by status",
+                        (HotQuery) test -> test.bookingService.getAllBookingsCurrentUser(
+                                USER_ID, "WAITING", null, 0, 10
+                        ),
+                        List.of("ix_booking_booker_status_id")),
+                arguments("bookings of booker after cursor",
+                        (HotQuery) test -> test.bookingService.getAllBookingsCurrentUser(
+                                USER_ID, "ALL", BOOKINGS / 2L, 0, 10
+                        ),
+                        List.of("ix_booking_booker_id")),
+                arguments("bookings of items owner",
+                        (HotQuery) test -> test.bookingService.getAllBookingsForItemsOwner(
+                                USER_ID, "ALL", null, 0, 10
+                        ),
+                        List.of("uq_owner_item_name", "ix_booking_item_(id|start|end)")),
+                arguments("last and next bookings of items",
+                        (HotQuery) test -> test.bookingRepository.findLastAndNextBookingsByItemIds(
+                                List.of(1L, 2L), now
+                        ),
+                        List.of("ix_booking_item_(id|start|end)")),
+                arguments("overlapping booking",
+                        (HotQuery) test -> test.bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                                1L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now.plusDays(3), now
+                        ),
+                        List.of("ix_booking_item_(id|start|end)|ex_booking_item_period")),
+                arguments("comments of item",
+                        (HotQuery) test -> test.itemService.getCommentsByItemId(1L, USER_ID, 0, 20),
+                        List.of("ix_comment_item_id")),
+                arguments("items of owner",
+                        (HotQuery) test -> test.itemRepository.findByOwnerId(USER_ID, PageRequest.of(0, 10)),
+                        List.of("uq_owner_item_name")),
+                arguments("item search",
+                        (HotQuery) test -> test.itemService.searchByNameOrDescription("drill", 0, 10),
+                        List.of("idx_items_name_trgm", "idx_items_description_trgm")),
+                arguments("responses to requests",
+                        (HotQuery) test -> test.itemRequestRepository.findResponsesByRequestIds(List.of(4L, 8L)),
+                        List.of("ix_item_request_id")),
+                arguments("requests of requester",
+                        (HotQuery) test -> test.requestService.getAllItemRequestsWithResponsesCurrentUser(
+                                USER_ID, 0, 10
+                        ),
+                        List.of("ix_item_request_requester_created", "ix_item_request_id")),
+                arguments("all requests",
+                        (HotQuery) test -> test.itemRequestRepository.findAll(
+                                PageRequest.of(0, 10, Sort.by("created").descending())
+                        ),
+                        List.of("ix_item_request_created")),
+                arguments("outdated booking summaries",
+                        (HotQuery) test -> test.itemBookingSummaryRepository.findStaleItemIds(
+                                now, PageRequest.of(0, 500)
+                        ),
+                        List.of("ix_item_booking_summary_valid_until"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryUsesIndexes(String name, HotQuery hotQuery, List<String> indexes) throws Exception {
+        String plans = loggedPlans(hotQuery);
+
+        for (String index : indexes) {
+            assertTrue(
+                    Pattern.compile(index).matcher(plans).find(),
+                    () -> String.format("%s does not use %s:%n%s", name, index, plans)
+            );
+        }
+    }
+
+    /**
+     * Выполнить сценарий между двумя запросами-метками и вернуть часть журнала сервера между ними
+     */
+    private String loggedPlans(HotQuery hotQuery) throws SQLException, InterruptedException {
+        int scenario = ++scenarios;
+        String begin = mark("begin " + scenario);
+
+        hotQuery.run(this);
+
+        String end = mark("end " + scenario);
+        long deadline = System.nanoTime() + LOG_TIMEOUT.toNanos();
+        String logs = POSTGRES.getLogs();
+
+        while (!logs.contains(end)) {
+            if (System.nanoTime() > deadline) {
+                fail(String.format("Postgres log has no %s after %s", end, LOG_TIMEOUT));
+            }
+
+            Thread.sleep(100);
+            logs = POSTGRES.getLogs();
+        }
+
+        return logs.substring(logs.indexOf(begin), logs.indexOf(end));
+    }
+
+    private static String mark(String name) throws SQLException {
+        String marker = String.format("[QueryPlanTest %s]", name);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(String.format("SELECT '%s'", marker));
+        }
+
+        return marker;
+    }
+
+    @FunctionalInterface
+    interface HotQuery {
+        void run(QueryPlanTest test);
+    }
+}
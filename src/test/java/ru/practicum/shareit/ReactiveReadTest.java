@@ -0,0 +1,137 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Чтение через R2DBC идет мимо транзакций JPA, поэтому тест не транзакционный, а данные лежат в отдельной базе H2,
+ * общей для DataSource и пула R2DBC
+ */
+@SpringBootTest(properties = {
+        "shareit.reactive.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:shareit-reactive",
+        "shareit.reactive.url=r2dbc:h2:mem:///shareit-reactive"
+})
+@AutoConfigureMockMvc
+class ReactiveReadTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void bookingAndItemListsAreStreamedAsNdjson() throws Exception {
+        Item item = Generators.ITEM_SUPPLIER.get();
+        User owner = userService.addUser(item.getOwner());
+        itemRepository.save(item);
+        User booker = userService.addUser(Generators.USER_SUPPLIER.get());
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking past = bookingRepository.save(new Booking(
+                null, now.minusDays(3), now.minusDays(2), item, booker, BookingStatus.APPROVED
+        ));
+        Booking future = bookingRepository.save(new Booking(
+                null, now.plusDays(2), now.plusDays(3), item, booker, BookingStatus.WAITING
+        ));
+
+        try {
+            List<JsonNode> bookings = stream(get("/bookings")
+                    .header("X-Sharer-User-Id", booker.getId()));
+
+            assertEquals(2, bookings.size());
+            assertEquals(future.getId(), bookings.get(0).get("id").asLong(), "Newest booking first");
+            assertEquals(past.getId(), bookings.get(1).get("id").asLong());
+            assertEquals(item.getId(), bookings.get(0).get("item").get("id").asLong());
+
+            List<JsonNode> waiting = stream(get("/bookings/owner")
+                    .param("state", "waiting")
+                    .header("X-Sharer-User-Id", owner.getId()));
+
+            assertEquals(1, waiting.size());
+            assertEquals("WAITING", waiting.get(0).get("status").asText());
+
+            List<JsonNode> items = stream(get("/items")
+                    .header("X-Sharer-User-Id", owner.getId()));
+
+            assertEquals(1, items.size());
+            assertEquals(past.getId(), items.get(0).get("lastBooking").get("id").asLong());
+            assertEquals(future.getId(), items.get(0).get("nextBooking").get("id").asLong());
+
+            List<JsonNode> found = stream(get("/items/search")
+                    .param("text", item.getName().toUpperCase()));
+
+            assertEquals(1, found.size());
+            assertEquals(item.getId(), found.get(0).get("id").asLong());
+
+            mvc.perform(get("/bookings")
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .header("X-Sharer-User-Id", Long.MAX_VALUE))
+                    .andExpect(status().isNotFound());
+        } finally {
+            bookingRepository.deleteAllInBatch(List.of(past, future));
+            itemRepository.deleteById(item.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(owner.getId());
+        }
+    }
+
+    private List<JsonNode> stream(MockHttpServletRequestBuilder requestBuilder) throws Exception {
+        MvcResult started = mvc.perform(requestBuilder.accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertTrue(started.getResponse().getContentType().startsWith(MediaType.APPLICATION_NDJSON_VALUE));
+
+        List<JsonNode> lines = new ArrayList<>();
+
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                lines.add(mapper.readTree(line));
+            }
+        }
+
+        return lines;
+    }
+}
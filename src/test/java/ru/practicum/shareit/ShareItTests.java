@@ -1,13 +1,105 @@
 package ru.practicum.shareit;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.requests.ItemRequest;
+import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * В профиле test бюджет SQL-запросов проверяется в режиме fail: запрос, превысивший бюджет из application.properties,
+ * завершается SqlBudgetExceededException и роняет тест
+ */
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureTestEntityManager
+@Transactional
 class ShareItTests {
+	private static final int ITEMS = 5;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private TestEntityManager testEntityManager;
 
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void readEndpointsStayWithinSqlBudget() throws Exception {
+		User owner = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+		User booker = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+		LocalDateTime now = LocalDateTime.now();
+		Item firstItem = null;
+
+		for (int i = 0; i < ITEMS; i++) {
+			User requester = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+			ItemRequest request = testEntityManager.persist(
+					new ItemRequest(null, "Need item " + i, requester, now.minusDays(3))
+			);
+
+			Item item = Generators.ITEM_SUPPLIER.get();
+			item.setOwner(owner);
+			item.setRequest(request);
+			testEntityManager.persist(item);
+			firstItem = firstItem == null ? item : firstItem;
+
+			testEntityManager.persist(
+					booking(item, booker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED)
+			);
+			testEntityManager.persist(
+					booking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING)
+			);
+		}
+		testEntityManager.flush();
+		testEntityManager.clear();
+
+		mvc.perform(get("/users/{id}", owner.getId())).andExpect(status().isOk());
+		mvc.perform(get("/items").param("size", String.valueOf(ITEMS)).header("X-Sharer-User-Id", owner.getId()))
+				.andExpect(status().isOk());
+		mvc.perform(get("/items/{id}", firstItem.getId()).header("X-Sharer-User-Id", owner.getId()))
+				.andExpect(status().isOk());
+		mvc.perform(get("/items/search").param("text", "item").header("X-Sharer-User-Id", booker.getId()))
+				.andExpect(status().isOk());
+		mvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId())).andExpect(status().isOk());
+		mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk());
+		mvc.perform(get("/requests").header("X-Sharer-User-Id", booker.getId())).andExpect(status().isOk());
+		mvc.perform(get("/requests/all").param("size", String.valueOf(ITEMS)))
+				.andExpect(status().isOk());
+	}
+
+	private static Booking booking(
+			Item item,
+			User booker,
+			LocalDateTime start,
+			LocalDateTime end,
+			BookingStatus status
+	) {
+		Booking booking = new Booking();
+		booking.setItem(item);
+		booking.setBooker(booker);
+		booking.setStart(start);
+		booking.setEnd(end);
+		booking.setStatus(status);
+
+		return booking;
+	}
+
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsConfigurationTest {
+    @Test
+    public void applicationTasksRunOnVirtualThreads() throws Exception {
+        AsyncTaskExecutor executor = new VirtualThreadsConfiguration().applicationTaskExecutor();
+
+        Future<Boolean> isVirtual = executor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(isVirtual.get());
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Бронирования создаются из нескольких потоков в отдельных транзакциях, поэтому тест не транзакционный и сам удаляет
+ * созданные данные
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class BookingConcurrencyTest {
+    private static final int THREADS = 8;
+
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Item item;
+
+    private final List<User> bookers = new ArrayList<>();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        item = Generators.ITEM_SUPPLIER.get();
+        userService.addUser(item.getOwner());
+        itemRepository.save(item);
+
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userService.addUser(Generators.USER_SUPPLIER.get()));
+        }
+
+        executor = Executors.newFixedThreadPool(THREADS + 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        bookingRepository.deleteAllInBatch(bookingRepository.findAllBookingByItem(item));
+        itemRepository.deleteById(item.getId());
+        bookers.forEach(booker -> userService.deleteUser(booker.getId()));
+        userService.deleteUser(item.getOwner().getId());
+    }
+
+    @Test
+    public void concurrentBookingsOfSamePeriodCreateOneBooking() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<Booking>> futures = bookInParallel(round, startLatch);
+
+            startLatch.countDown();
+
+            assertEquals(1, countCreated(futures), "Exactly one booking per period is created");
+        }
+
+        assertEquals(ROUNDS, bookingRepository.findAllBookingByItem(item).size(), "No double bookings stored");
+    }
+
+    @Test
+    public void ownerUpdateIsRetriedWhileItemIsBooked() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            ItemDto itemDto = ItemDto.builder()
+                    .id(item.getId())
+                    .description("Updated in round " + round)
+                    .build();
+
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<Booking>> futures = bookInParallel(round, startLatch);
+            Future<Item> update = executor.submit(() -> {
+                startLatch.await();
+
+                return itemService.updateItem(item.getOwner().getId(), itemDto);
+            });
+
+            startLatch.countDown();
+
+            assertEquals(1, countCreated(futures), "Exactly one booking per period is created");
+            assertEquals(
+                    itemDto.getDescription(),
+                    update.get(30, TimeUnit.SECONDS).getDescription(),
+                    "Owner update survives concurrent bookings"
+            );
+        }
+
+        assertEquals("Updated in round " + (ROUNDS - 1), itemRepository.findById(item.getId()).orElseThrow()
+                .getDescription());
+    }
+
+    /**
+     * Запустить бронирование одного периода всеми арендаторами. Брони ждут startLatch
+     */
+    private List<Future<Booking>> bookInParallel(int round, CountDownLatch startLatch) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + round * 2L);
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .build();
+
+        List<Future<Booking>> futures = new ArrayList<>();
+
+        for (User booker : bookers) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+
+                return bookingService.addBooking(bookingCreateDto, booker.getId());
+            }));
+        }
+
+        return futures;
+    }
+
+    private static int countCreated(List<Future<Booking>> futures) throws Exception {
+        int created = 0;
+
+        for (Future<Booking> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                boolean isConflict = e.getCause() instanceof BookingOverlapException
+                        || e.getCause() instanceof ConcurrencyFailureException;
+
+                assertTrue(isConflict, () -> "Unexpected failure: " + e.getCause());
+            }
+        }
+
+        return created;
+    }
+}
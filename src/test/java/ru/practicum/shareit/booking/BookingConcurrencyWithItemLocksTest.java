@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Те же сценарии, что и в BookingConcurrencyTest, но записи одного предмета сериализуются блокировкой внутри
+ * приложения
+ */
+@SpringBootTest(properties = "shareit.booking.item-locks.enabled=true")
+@AutoConfigureTestDatabase
+class BookingConcurrencyWithItemLocksTest extends BookingConcurrencyTest {
+}
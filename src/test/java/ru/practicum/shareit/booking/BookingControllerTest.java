@@ -3,19 +3,27 @@ package ru.practicum.shareit.booking;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.Generators;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.Matchers.is;
 
@@ -23,8 +31,10 @@ import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 @WebMvcTest(controllers = BookingController.class)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -77,6 +87,34 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(booking.getStatus().toString())));
     }
 
+    @Test
+    void addBookingOverlapRejectedByDatabase() throws Exception {
+        BookingCreateDto bookingCreateDto = BookingCreateDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+        SQLException exclusionViolation = new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"ex_booking_item_period\"", "23P01"
+        );
+
+        Mockito
+                .when(bookingService.addBooking(bookingCreateDto, 2L))
+                .thenThrow(new DataIntegrityViolationException(
+                        "could not execute statement",
+                        new ConstraintViolationException("could not execute statement", exclusionViolation, null)
+                ));
+
+        mvc.perform(post("/bookings")
+                        .content(mapper.writeValueAsString(bookingCreateDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Item is already booked for this period")));
+    }
+
     @Test
     void getAllBookingsCurrentUser() throws Exception {
         Item item1 = Generators.ITEM_SUPPLIER.get();
@@ -106,8 +144,8 @@ class BookingControllerTest {
         );
 
         Mockito
-                .when(bookingService.getAllBookingsCurrentUser(3, "ALL", 0, Integer.MAX_VALUE))
-                .thenReturn(List.of(booking1, booking2));
+                .when(bookingService.getAllBookingsCurrentUser(4, "ALL", null, 0, 100))
+                .thenReturn(new SliceImpl<>(List.of(booking1, booking2)));
 
         mvc.perform(get("/bookings")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -116,6 +154,81 @@ class BookingControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllBookingsCurrentUserByOffset() throws Exception {
+        Booking booking = new Booking(
+                3L,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                Generators.ITEM_SUPPLIER.get(),
+                Generators.USER_SUPPLIER.get(),
+                BookingStatus.WAITING
+        );
+
+        Mockito
+                .when(bookingService.getAllBookingsCurrentUser(4, "WAITING", null, 1, 2))
+                .thenReturn(new SliceImpl<>(List.of(booking)));
+
+        mvc.perform(get("/bookings")
+                        .param("state", "WAITING")
+                        .param("from", "1")
+                        .param("size", "2")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 4))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(3)));
+
+        Mockito.verify(bookingService).getAllBookingsCurrentUser(4, "WAITING", null, 1, 2);
+    }
+
+    @Test
+    void getAllBookingsCurrentUserAfterCursor() throws Exception {
+        Mockito
+                .when(bookingService.getAllBookingsCurrentUser(4, "ALL", 10L, 0, 2))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        mvc.perform(get("/bookings")
+                        .param("after", "10")
+                        .param("size", "2")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 4))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)));
+
+        Mockito.verify(bookingService).getAllBookingsCurrentUser(4, "ALL", 10L, 0, 2);
+    }
+
+    @Test
+    void exportBookingsCurrentUser() throws Exception {
+        BookingDto first = BookingDto.builder().id(2L).status("WAITING").build();
+        BookingDto second = BookingDto.builder().id(1L).status("APPROVED").build();
+
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<BookingDto> consumer = invocation.getArgument(1);
+                    consumer.accept(first);
+                    consumer.accept(second);
+
+                    return null;
+                })
+                .when(bookingService).exportAllByBooker(Mockito.eq(4L), Mockito.any());
+
+        MvcResult result = mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 4))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        mapper.writeValueAsString(first) + "\n" + mapper.writeValueAsString(second) + "\n"
+                ));
+    }
+
     @Test
     void getAllBookingsForItemsOwner() throws Exception {
         Item item = Generators.ITEM_SUPPLIER.get();
@@ -145,9 +258,9 @@ class BookingControllerTest {
 
         Mockito
                 .when(bookingService.getAllBookingsForItemsOwner(
-                        Mockito.anyLong(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt())
+                        Mockito.anyLong(), Mockito.anyString(), Mockito.isNull(), Mockito.anyInt(), Mockito.anyInt())
                 )
-                .thenReturn(List.of(booking1, booking2));
+                .thenReturn(new SliceImpl<>(List.of(booking1, booking2)));
 
         mvc.perform(get("/bookings/owner")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -234,4 +347,18 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker.name").value(booking.getBooker().getName()))
                 .andExpect(jsonPath("$.status").value(booking.getStatus().toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingByIdWithoutUserHeader() throws Exception {
+        mvc.perform(get("/bookings/1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(get("/bookings/1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", "not a number"))
+                .andExpect(status().isBadRequest());
+    }
+}
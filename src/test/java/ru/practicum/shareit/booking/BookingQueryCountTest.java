@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Количество SQL-запросов на один запрос списка броней не должно зависеть от количества броней: предмет, его
+ * владелец и арендатор выбираются вместе с бронью
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureTestEntityManager
+@Transactional
+class BookingQueryCountTest {
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private boolean statisticsWereEnabled;
+
+    @BeforeEach
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsWereEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void restoreStatistics() {
+        statistics.setStatisticsEnabled(statisticsWereEnabled);
+    }
+
+    @Test
+    public void bookingsOfUserAreLoadedWithTwoStatements() throws Exception {
+        User booker = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = Generators.BOOKING_SUPPLIER.get();
+            booking.setBooker(booker);
+            testEntityManager.persist(booking.getItem().getOwner());
+            testEntityManager.persist(booking.getItem());
+            testEntityManager.persist(booking);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        mvc.perform(get("/bookings")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", booker.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(BOOKINGS));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "user lookup and one booking query expected");
+    }
+
+    @Test
+    public void bookingsOfOwnerAreLoadedWithTwoStatements() throws Exception {
+        Booking first = Generators.BOOKING_SUPPLIER.get();
+        User owner = testEntityManager.persist(first.getItem().getOwner());
+        testEntityManager.persist(first.getItem());
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = Generators.BOOKING_SUPPLIER.get();
+            booking.setItem(first.getItem());
+            testEntityManager.persist(booking.getBooker());
+            testEntityManager.persist(booking);
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        mvc.perform(get("/bookings/owner")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(BOOKINGS));
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "user lookup and one booking query expected");
+    }
+}
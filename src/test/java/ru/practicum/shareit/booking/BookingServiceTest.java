@@ -8,18 +8,23 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.Generators;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exceptions.BookingIncorrectStartEndDatesException;
 import ru.practicum.shareit.booking.exceptions.BookingNotFound;
+import ru.practicum.shareit.booking.exceptions.BookingOverlapException;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserNotOwnerItemException;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -218,6 +223,58 @@ class BookingServiceTest {
         assertEquals(bookingService.getAllByBooker(booker).size(), 2);
     }
 
+    @Test
+    public void bookingExportForUserIsNewestFirst() {
+        Booking booking1 = Generators.BOOKING_SUPPLIER.get();
+        testEntityManager.persist(booking1.getItem().getOwner());
+        testEntityManager.persist(booking1.getItem());
+        User booker = testEntityManager.persist(booking1.getBooker());
+        Long booking1Id = testEntityManager.persistAndGetId(booking1, Long.class);
+
+        Booking booking2 = Generators.BOOKING_SUPPLIER.get();
+        booking2.setBooker(booker);
+        testEntityManager.persist(booking2.getItem().getOwner());
+        testEntityManager.persist(booking2.getItem());
+        Long booking2Id = testEntityManager.persistAndGetId(booking2, Long.class);
+
+        testEntityManager.flush();
+
+        List<BookingDto> exported = new ArrayList<>();
+        bookingService.exportAllByBooker(booker.getId(), exported::add);
+
+        List<Long> exportedIds = exported.stream().map(BookingDto::getId).collect(Collectors.toList());
+
+        assertEquals(List.of(booking2Id, booking1Id), exportedIds);
+        assertEquals(booker.getId(), exported.get(0).getBooker().getId());
+    }
+
+    @Test
+    public void bookingGetWaitingForUserByKeyset() {
+        Booking booking1 = Generators.BOOKING_SUPPLIER.get();
+        testEntityManager.persist(booking1.getItem().getOwner());
+        testEntityManager.persist(booking1.getItem());
+        User booker = testEntityManager.persist(booking1.getBooker());
+        testEntityManager.persist(booking1);
+
+        for (int i = 0; i < 2; i++) {
+            Booking booking = Generators.BOOKING_SUPPLIER.get();
+            booking.setBooker(booker);
+            booking.setItem(booking1.getItem());
+            testEntityManager.persist(booking);
+        }
+
+        testEntityManager.flush();
+
+        Slice<Booking> firstPage = bookingService.getAllBookingsCurrentUser(booker.getId(), "WAITING", null, 0, 2);
+        assertEquals(2, firstPage.getNumberOfElements());
+        assertTrue(firstPage.hasNext());
+
+        Long cursor = firstPage.getContent().get(1).getId();
+        Slice<Booking> secondPage = bookingService.getAllBookingsCurrentUser(booker.getId(), "WAITING", cursor, 0, 2);
+        assertEquals(List.of(booking1), secondPage.getContent());
+        assertFalse(secondPage.hasNext());
+    }
+
     @Test
     public void bookingGetAllForOwner() {
         Booking booking1 = Generators.BOOKING_SUPPLIER.get();
@@ -238,6 +295,31 @@ class BookingServiceTest {
         assertEquals(bookingService.getAllByItemOwnerId(owner.getId()).size(), 2);
     }
 
+    @Test
+    public void bookingGetAllStateIsPaged() {
+        Booking booking1 = Generators.BOOKING_SUPPLIER.get();
+        User owner = testEntityManager.persist(booking1.getItem().getOwner());
+        testEntityManager.persist(booking1.getItem());
+        User booker = testEntityManager.persist(booking1.getBooker());
+        testEntityManager.persist(booking1);
+
+        Booking booking2 = Generators.BOOKING_SUPPLIER.get();
+        booking2.setBooker(booker);
+        booking2.setItem(booking1.getItem());
+        booking2.setStatus(BookingStatus.REJECTED);
+        testEntityManager.persist(booking2);
+
+        testEntityManager.flush();
+
+        Slice<Booking> byBooker = bookingService.getAllBookingsCurrentUser(booker.getId(), "ALL", null, 0, 1);
+        assertEquals(List.of(booking2), byBooker.getContent());
+        assertTrue(byBooker.hasNext());
+
+        Slice<Booking> byOwner = bookingService.getAllBookingsForItemsOwner(owner.getId(), "ALL", null, 1, 1);
+        assertEquals(List.of(booking1), byOwner.getContent());
+        assertFalse(byOwner.hasNext());
+    }
+
     @Test
     public void bookingGetUnkonwn() {
         Booking booking1 = Generators.BOOKING_SUPPLIER.get();
@@ -283,4 +365,31 @@ class BookingServiceTest {
 
         assertDoesNotThrow(() -> bookingService.approveBooking(bookingId, ownerId, true));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void bookingApproveRejectedOverlappingWithApprovedFailed() {
+        Booking rejected = Generators.BOOKING_SUPPLIER.get();
+        rejected.setStatus(BookingStatus.REJECTED);
+        Long ownerId = testEntityManager.persistAndGetId(rejected.getItem().getOwner(), Long.class);
+        testEntityManager.persist(rejected.getItem());
+        testEntityManager.persist(rejected.getBooker());
+        Long rejectedId = testEntityManager.persistAndGetId(rejected, Long.class);
+        Booking approved = Generators.BOOKING_SUPPLIER.get();
+        approved.setItem(rejected.getItem());
+        approved.setStart(rejected.getStart());
+        approved.setEnd(rejected.getEnd());
+        approved.setStatus(BookingStatus.APPROVED);
+        testEntityManager.persist(approved.getBooker());
+        testEntityManager.persist(approved);
+        testEntityManager.flush();
+
+        assertAll(
+                () -> assertThrows(
+                        BookingOverlapException.class, () -> bookingService.approveBooking(rejectedId, ownerId, true)
+                ),
+                () -> assertEquals(
+                        BookingStatus.REJECTED, testEntityManager.find(Booking.class, rejectedId).getStatus()
+                )
+        );
+    }
+}
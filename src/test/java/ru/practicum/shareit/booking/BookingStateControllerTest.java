@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Состояния COMPLETED, CANCELED и APPROVED из прежних версий API в списках броней арендатора и владельца
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureTestEntityManager
+@Transactional
+class BookingStateControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @ParameterizedTest
+    @CsvSource({
+            "completed, PAST",
+            "CANCELED, REJECTED",
+            "APPROVED, ALL"
+    })
+    public void legacyStateSelectsBookingsOfItsReplacement(String legacyState, BookingState state) throws Exception {
+        Booking past = Generators.BOOKING_SUPPLIER.get();
+        past.setStart(LocalDateTime.now().minusDays(3));
+        past.setEnd(LocalDateTime.now().minusDays(2));
+        past.setStatus(BookingStatus.APPROVED);
+        User owner = testEntityManager.persist(past.getItem().getOwner());
+        testEntityManager.persist(past.getItem());
+        User booker = testEntityManager.persist(past.getBooker());
+        testEntityManager.persist(past);
+
+        Booking rejected = Generators.BOOKING_SUPPLIER.get();
+        rejected.setItem(past.getItem());
+        rejected.setBooker(booker);
+        rejected.setStatus(BookingStatus.REJECTED);
+        testEntityManager.persist(rejected);
+
+        Booking waiting = Generators.BOOKING_SUPPLIER.get();
+        waiting.setItem(past.getItem());
+        waiting.setBooker(booker);
+        waiting.setStart(LocalDateTime.now().plusDays(5));
+        waiting.setEnd(LocalDateTime.now().plusDays(6));
+        testEntityManager.persist(waiting);
+        testEntityManager.flush();
+
+        Map<BookingState, List<Integer>> expectedIds = Map.of(
+                BookingState.PAST, List.of(past.getId().intValue()),
+                BookingState.REJECTED, List.of(rejected.getId().intValue()),
+                BookingState.ALL, List.of(
+                        waiting.getId().intValue(), rejected.getId().intValue(), past.getId().intValue()
+                )
+        );
+
+        for (Map.Entry<String, User> list : Map.of("/bookings", booker, "/bookings/owner", owner).entrySet()) {
+            mvc.perform(get(list.getKey())
+                            .param("state", legacyState)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .header("X-Sharer-User-Id", list.getValue().getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id", contains(expectedIds.get(state).toArray())));
+        }
+    }
+}
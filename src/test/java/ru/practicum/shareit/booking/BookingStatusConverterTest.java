@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.exceptions.BookingStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingStatusConverterTest {
+    private final BookingStatusConverter converter = new BookingStatusConverter();
+
+    @Test
+    public void statusRoundTripThroughCode() {
+        for (BookingStatus status : BookingStatus.values()) {
+            Short code = converter.convertToDatabaseColumn(status);
+
+            assertEquals(status, converter.convertToEntityAttribute(code), "Статус должен восстанавливаться по коду");
+        }
+    }
+
+    @Test
+    public void unknownCodeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute((short) 42));
+    }
+
+    @Test
+    public void stateIsParsedIgnoringCase() {
+        assertAll(
+                () -> assertEquals(BookingState.WAITING, BookingState.from("waiting")),
+                () -> assertEquals(BookingState.ALL, BookingState.from("approved")),
+                () -> assertThrows(BookingStatusException.class, () -> BookingState.from("UNSUPPORTED")),
+                () -> assertThrows(BookingStatusException.class, () -> BookingState.from(null))
+        );
+    }
+}
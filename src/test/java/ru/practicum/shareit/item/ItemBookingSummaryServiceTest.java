@@ -0,0 +1,173 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверка и перестройка сводок выполняются вне транзакции вызывающего кода, поэтому тест не транзакционный и сам
+ * удаляет созданные данные
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ItemBookingSummaryServiceTest {
+    @Autowired
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void summaryFollowsBookingsAndIsRebuiltAfterDivergence() {
+        User owner = userService.addUser(Generators.USER_SUPPLIER.get());
+        User booker = userService.addUser(Generators.USER_SUPPLIER.get());
+        Item item = itemService.addItem(owner.getId(), ItemCreateDto.builder()
+                .name("Summary item")
+                .description("Item with booking summary")
+                .available(true)
+                .build());
+        Booking booking = null;
+
+        try {
+            assertNull(itemBookingSummaryRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+
+            booking = bookingService.addBooking(BookingCreateDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .build(), booker.getId());
+
+            ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+            assertEquals(booking.getId(), summary.getNextBookingId());
+            assertEquals(booker.getId(), summary.getNextBookerId());
+            assertEquals(
+                    booking.getId(),
+                    itemService.getItemById(item.getId(), owner.getId()).getNextBooking().getId()
+            );
+
+            summary.setNextBookingId(null);
+            summary.setNextBookerId(null);
+            itemBookingSummaryRepository.save(summary);
+
+            assertTrue(itemBookingSummaryService.check(false) > 0, "Divergence must be detected");
+
+            itemBookingSummaryService.check(true);
+
+            assertEquals(0, itemBookingSummaryService.check(false));
+            assertEquals(
+                    booking.getId(),
+                    itemBookingSummaryRepository.findById(item.getId()).orElseThrow().getNextBookingId()
+            );
+        } finally {
+            if (booking != null) {
+                bookingRepository.deleteById(booking.getId());
+            }
+            itemRepository.deleteById(item.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(owner.getId());
+        }
+    }
+
+    @Test
+    public void refreshWaitsForBookingAddedToOutdatedSummary() throws Exception {
+        User owner = userService.addUser(Generators.USER_SUPPLIER.get());
+        User booker = userService.addUser(Generators.USER_SUPPLIER.get());
+        Item item = itemService.addItem(owner.getId(), ItemCreateDto.builder()
+                .name("Refreshed item")
+                .description("Item with outdated booking summary")
+                .available(true)
+                .build());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch summaryLocked = new CountDownLatch(1);
+        CountDownLatch commitBooking = new CountDownLatch(1);
+        Booking booking = null;
+
+        try {
+            ItemBookingSummary outdated = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+            outdated.setValidUntil(LocalDateTime.now().minusMinutes(1));
+            itemBookingSummaryRepository.save(outdated);
+
+            // Бронь добавляется в транзакции, которая остается открытой, пока запускается пересчет сводок
+            TransactionTemplate bookingTransaction = new TransactionTemplate(transactionManager);
+            Future<Booking> added = executor.submit(() -> bookingTransaction.execute(status -> {
+                Booking created = bookingService.addBooking(BookingCreateDto.builder()
+                        .itemId(item.getId())
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2))
+                        .build(), booker.getId());
+                summaryLocked.countDown();
+
+                try {
+                    commitBooking.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return created;
+            }));
+
+            assertTrue(summaryLocked.await(30, TimeUnit.SECONDS), "Booking must be added");
+
+            Future<Integer> refreshed = executor.submit(itemBookingSummaryService::refreshOutdated);
+
+            assertThrows(
+                    TimeoutException.class,
+                    () -> refreshed.get(300, TimeUnit.MILLISECONDS),
+                    "Refresh must wait until the booking is committed"
+            );
+
+            commitBooking.countDown();
+            booking = added.get(30, TimeUnit.SECONDS);
+
+            assertTrue(refreshed.get(30, TimeUnit.SECONDS) > 0, "Outdated summary must be refreshed");
+
+            ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+            assertEquals(booking.getId(), summary.getNextBookingId());
+            assertTrue(summary.isValidAt(LocalDateTime.now()), "Refreshed summary must be valid");
+        } finally {
+            commitBooking.countDown();
+            executor.shutdownNow();
+
+            if (booking != null) {
+                bookingRepository.deleteById(booking.getId());
+            }
+            itemRepository.deleteById(item.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(owner.getId());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemControllerTest {
+    @MockBean
+    private final ItemService itemService;
+
+    @MockBean
+    private final ItemImportService itemImportService;
+
+    @Autowired
+    private final MockMvc mvc;
+
+    @Test
+    void getComments() throws Exception {
+        CommentDto comment = new CommentDto(5L, "Good drill", "Author", LocalDateTime.now());
+
+        Mockito
+                .when(itemService.getCommentsByItemId(1, 2, 4, 10))
+                .thenReturn(List.of(comment));
+
+        mvc.perform(get("/items/1/comments")
+                        .param("after", "4")
+                        .param("size", "10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 2))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(5)))
+                .andExpect(jsonPath("$[0].authorName", is("Author")));
+
+        Mockito.verify(itemService).getCommentsByItemId(1, 2, 4, 10);
+    }
+
+    @Test
+    void getCommentsWithoutUserHeader() throws Exception {
+        mvc.perform(get("/items/1/comments")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(itemService, Mockito.never()).getCommentsByItemId(anyLong(), anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getCommentsByUnknownUser() throws Exception {
+        Mockito
+                .when(itemService.getCommentsByItemId(1, 100, 0, 100))
+                .thenThrow(new UserNotFoundException("User with id:100 not found."));
+
+        mvc.perform(get("/items/1/comments")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 100))
+                .andExpect(status().isNotFound());
+    }
+}
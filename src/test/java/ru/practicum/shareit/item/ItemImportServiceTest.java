@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.item.dto.ItemCreateDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.exceptions.UserNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureTestEntityManager
+@Transactional
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemImportServiceTest {
+    @Autowired
+    private final ItemImportService itemImportService;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final TestEntityManager testEntityManager;
+
+    @Test
+    public void validRowsAreImportedAndInvalidRowsReported() {
+        Item existing = Generators.ITEM_SUPPLIER.get();
+        User owner = testEntityManager.persist(existing.getOwner());
+        testEntityManager.persist(existing);
+
+        List<ItemCreateDto> rows = new ArrayList<>();
+
+        for (int i = 0; i < ItemImportService.CHUNK_SIZE + 10; i++) {
+            rows.add(itemCreateDto("Imported " + i, null));
+        }
+
+        rows.add(itemCreateDto(existing.getName(), null));
+        rows.add(itemCreateDto("Imported 0", null));
+        rows.add(itemCreateDto(" ", null));
+        rows.add(itemCreateDto("With unknown request", Long.MAX_VALUE));
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), rows.iterator());
+
+        List<ItemImportResultDto.RowError> errors = result.getErrors();
+
+        assertEquals(ItemImportService.CHUNK_SIZE + 10, result.getImported());
+        assertEquals(4, errors.size());
+        assertEquals(
+                new ItemImportResultDto.RowError(rows.size() - 3L,
+                        String.format("Item with name '%s' already exists", existing.getName())),
+                errors.get(0)
+        );
+        assertEquals(
+                new ItemImportResultDto.RowError(rows.size() - 2L, "Item with name 'Imported 0' already exists"),
+                errors.get(1)
+        );
+        assertEquals(rows.size() - 1L, errors.get(2).getRow());
+        assertTrue(errors.get(2).getError().startsWith("name: "));
+        assertEquals(
+                new ItemImportResultDto.RowError(rows.size(),
+                        String.format("Item request with id:%s not found.", Long.MAX_VALUE)),
+                errors.get(3)
+        );
+        assertEquals(ItemImportService.CHUNK_SIZE + 11,
+                itemRepository.findByOwnerId(owner.getId(), Pageable.unpaged()).getNumberOfElements());
+    }
+
+    @Test
+    public void importFailsForUnknownOwner() {
+        Iterator<ItemCreateDto> rows = List.of(itemCreateDto("Tent", null)).iterator();
+
+        assertThrows(UserNotFoundException.class, () -> itemImportService.importItems(Long.MAX_VALUE, rows));
+    }
+
+    private static ItemCreateDto itemCreateDto(String name, Long requestId) {
+        return ItemCreateDto.builder()
+                .name(name)
+                .description(name + " description")
+                .available(true)
+                .requestId(requestId)
+                .build();
+    }
+}
@@ -10,10 +10,14 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemWithBookingDatesDto;
 import ru.practicum.shareit.item.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.item.exceptions.UserIsNotBookedItemException;
 import ru.practicum.shareit.item.exceptions.UserNotOwnerItemException;
@@ -21,6 +25,8 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
 import javax.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -218,6 +224,60 @@ class ItemServiceTest {
         assertEquals(itemService.getAllByOwnerId(ownerId, 0, Integer.MAX_VALUE).size(), 2);
     }
 
+    @Test
+    public void itemGetAllWithLastAndNextBooking() {
+        Item item1 = Generators.ITEM_SUPPLIER.get();
+        Item item2 = Generators.ITEM_SUPPLIER.get();
+        item2.setOwner(item1.getOwner());
+        User booker = Generators.USER_SUPPLIER.get();
+
+        Long ownerId = testEntityManager.persistAndGetId(item1.getOwner(), Long.class);
+        testEntityManager.persist(booker);
+        Long item1Id = testEntityManager.persistAndGetId(item1, Long.class);
+        Long item2Id = testEntityManager.persistAndGetId(item2, Long.class);
+
+        Booking oldBooking = new Booking(
+                LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4), BookingStatus.APPROVED
+        );
+        Booking lastBooking = new Booking(
+                LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), BookingStatus.APPROVED
+        );
+        Booking nextBooking = new Booking(
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), BookingStatus.WAITING
+        );
+        Booking laterBooking = new Booking(
+                LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4), BookingStatus.WAITING
+        );
+
+        for (Booking booking : List.of(oldBooking, lastBooking, nextBooking, laterBooking)) {
+            booking.setItem(item1);
+            booking.setBooker(booker);
+            testEntityManager.persist(booking);
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<ItemWithBookingDatesDto> items = itemService.getAllByOwnerId(ownerId, 0, Integer.MAX_VALUE);
+        ItemWithBookingDatesDto foundItem1 = items.stream()
+                .filter(i -> i.getId().equals(item1Id))
+                .findFirst()
+                .orElseThrow();
+        ItemWithBookingDatesDto foundItem2 = items.stream()
+                .filter(i -> i.getId().equals(item2Id))
+                .findFirst()
+                .orElseThrow();
+
+        assertAll(
+                () -> assertEquals(items.size(), 2),
+                () -> assertEquals(foundItem1.getLastBooking().getId(), lastBooking.getId()),
+                () -> assertEquals(foundItem1.getLastBooking().getBookerId(), booker.getId()),
+                () -> assertEquals(foundItem1.getNextBooking().getId(), nextBooking.getId()),
+                () -> assertNull(foundItem2.getLastBooking()),
+                () -> assertNull(foundItem2.getNextBooking())
+        );
+    }
+
     @Test
     public void itemSearchByDescription() {
         String searchTxt = "аккУМУляторная";
@@ -238,6 +298,59 @@ class ItemServiceTest {
         assertEquals(itemService.searchByNameOrDescription(searchTxt, 0, Integer.MAX_VALUE).size(), 2);
     }
 
+    @Test
+    public void itemSearchSkipsUnavailableAndKeepsPageFull() {
+        String searchTxt = "перфоратор";
+        Item unavailableItem = Generators.ITEM_SUPPLIER.get();
+        unavailableItem.setName("Перфоратор сломанный");
+        unavailableItem.setAvailable(false);
+        Item item1 = Generators.ITEM_SUPPLIER.get();
+        item1.setName("Перфоратор");
+        Item item2 = Generators.ITEM_SUPPLIER.get();
+        item2.setDescription("Мощный перфоратор");
+        Item wildcardItem = Generators.ITEM_SUPPLIER.get();
+        wildcardItem.setDescription("Скидка 100% на дрель");
+
+        for (Item item : List.of(unavailableItem, item1, item2, wildcardItem)) {
+            testEntityManager.persist(item.getOwner());
+            testEntityManager.persist(item);
+        }
+
+        testEntityManager.flush();
+
+        List<Item> firstPage = itemService.searchByNameOrDescription(searchTxt, 0, 2);
+
+        assertAll(
+                () -> assertEquals(firstPage, List.of(item1, item2)),
+                () -> assertEquals(itemService.searchByNameOrDescription("100%", 0, 10), List.of(wildcardItem)),
+                () -> assertEquals(itemService.searchByNameOrDescription("%", 0, 10), List.of(wildcardItem))
+        );
+    }
+
+    @Test
+    public void itemSearchTreatsPercentAndUnderscoreLiterally() {
+        Item underscoreItem = Generators.ITEM_SUPPLIER.get();
+        underscoreItem.setName("Кабель usb_c");
+        Item anyCharItem = Generators.ITEM_SUPPLIER.get();
+        anyCharItem.setName("Кабель usb-c");
+        Item percentItem = Generators.ITEM_SUPPLIER.get();
+        percentItem.setDescription("Заряд 50%о ватт");
+        Item anyTextItem = Generators.ITEM_SUPPLIER.get();
+        anyTextItem.setDescription("Заряд 50 ватт, корпус");
+
+        for (Item item : List.of(underscoreItem, anyCharItem, percentItem, anyTextItem)) {
+            testEntityManager.persist(item.getOwner());
+            testEntityManager.persist(item);
+        }
+
+        testEntityManager.flush();
+
+        assertAll(
+                () -> assertEquals(itemService.searchByNameOrDescription("usb_c", 0, 10), List.of(underscoreItem)),
+                () -> assertEquals(itemService.searchByNameOrDescription("0%о", 0, 10), List.of(percentItem))
+        );
+    }
+
     @Test
     public void itemSearchEmpty() {
         String searchTxt = "";
@@ -272,4 +385,33 @@ class ItemServiceTest {
         assertThrows(UserIsNotBookedItemException.class, () -> itemService.addComment(comment, itemId, userId));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void itemGetCapsCommentsAndPagesTheRest() {
+        Item item = Generators.ITEM_SUPPLIER.get();
+        Long ownerId = testEntityManager.persistAndGetId(item.getOwner(), Long.class);
+        Long itemId = testEntityManager.persistAndGetId(item, Long.class);
+        User author = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+
+        int total = ItemService.ITEM_COMMENTS_LIMIT + 5;
+        for (int i = 0; i < total; i++) {
+            testEntityManager.persist(Comment.builder()
+                    .text("comment " + i)
+                    .item(item)
+                    .author(author)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<CommentDto> firstComments = itemService.getItemById(itemId, ownerId).getComments();
+        assertEquals(ItemService.ITEM_COMMENTS_LIMIT, firstComments.size());
+        assertEquals(author.getName(), firstComments.get(0).getAuthorName());
+
+        Long cursor = firstComments.get(firstComments.size() - 1).getId();
+        List<CommentDto> restComments = itemService.getCommentsByItemId(itemId, author.getId(), cursor, total);
+        assertEquals(total - ItemService.ITEM_COMMENTS_LIMIT, restComments.size());
+        assertTrue(restComments.get(0).getId() > cursor);
+    }
+
+}
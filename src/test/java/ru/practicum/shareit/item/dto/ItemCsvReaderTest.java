@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.exceptions.ItemImportFormatException;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCsvReaderTest {
+    @Test
+    public void readsQuotedFieldsInHeaderOrder() {
+        String csv = "available,name,description,requestId\r\n"
+                + "true,Drill,\"Cordless, 18V\",\n"
+                + "\n"
+                + "FALSE,\"Saw \"\"Bosch\"\"\",\"Two\nlines\",7\n";
+
+        List<ItemCreateDto> items = readAll(csv);
+
+        assertEquals(2, items.size());
+        assertEquals(ItemCreateDto.builder()
+                .name("Drill")
+                .description("Cordless, 18V")
+                .available(true)
+                .build(), items.get(0));
+        assertEquals(ItemCreateDto.builder()
+                .name("Saw \"Bosch\"")
+                .description("Two\nlines")
+                .available(false)
+                .requestId(7L)
+                .build(), items.get(1));
+    }
+
+    @Test
+    public void unknownAvailableAndMissingFieldsAreReadAsNull() {
+        List<ItemCreateDto> items = readAll("name,description,available\nTent,Big,maybe\nKayak\n");
+
+        assertNull(items.get(0).getAvailable());
+        assertNull(items.get(1).getDescription());
+        assertNull(items.get(1).getAvailable());
+    }
+
+    @Test
+    public void brokenInputIsRejected() {
+        assertThrows(ItemImportFormatException.class, () -> readAll(""));
+        assertThrows(ItemImportFormatException.class, () -> readAll("name,available\nTent,true\n"));
+        assertThrows(ItemImportFormatException.class, () -> readAll("name,description,available\n\"Tent,Big,true\n"));
+        assertThrows(ItemImportFormatException.class,
+                () -> readAll("name,description,available,requestId\nTent,Big,true,x\n"));
+    }
+
+    private static List<ItemCreateDto> readAll(String csv) {
+        ItemCsvReader reader = new ItemCsvReader(new StringReader(csv));
+        List<ItemCreateDto> items = new ArrayList<>();
+        reader.forEachRemaining(items::add);
+
+        return items;
+    }
+}
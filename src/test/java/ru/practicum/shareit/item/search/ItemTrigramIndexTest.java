@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemTrigramIndexTest {
+
+    private ItemTrigramIndex index;
+
+    @BeforeEach
+    public void beforeEachItemTrigramIndexTest() {
+        index = new ItemTrigramIndex();
+        index.put(1, "Дрель", "Аккумуляторная дрель", true);
+        index.put(2, "Аккумуляторная отвертка", "Простая отвертка", true);
+        index.put(3, "Перфоратор", "Сломан", false);
+        index.put(4, "Пила", "Циркулярная пила", true);
+    }
+
+    @Test
+    public void searchByNameAndDescriptionIgnoringCase() {
+        assertAll(
+                () -> assertArrayEquals(new long[]{1, 2}, index.search("аккУМУляторная", 0, 10)),
+                () -> assertArrayEquals(new long[]{4}, index.search("ЦИРК", 0, 10)),
+                () -> assertArrayEquals(new long[0], index.search("лобзик", 0, 10))
+        );
+    }
+
+    @Test
+    public void searchSkipsUnavailableItems() {
+        assertArrayEquals(new long[0], index.search("перфоратор", 0, 10));
+
+        index.put(3, "Перфоратор", "Починен", true);
+        assertArrayEquals(new long[]{3}, index.search("перфоратор", 0, 10));
+
+        index.put(3, "Перфоратор", "Починен", false);
+        assertArrayEquals(new long[0], index.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    public void updateReplacesOldText() {
+        index.put(4, "Лобзик", "Электрический лобзик", true);
+
+        assertAll(
+                () -> assertArrayEquals(new long[0], index.search("пила", 0, 10)),
+                () -> assertArrayEquals(new long[]{4}, index.search("лобзик", 0, 10))
+        );
+    }
+
+    @Test
+    public void searchDoesNotMatchAcrossNameAndDescription() {
+        assertArrayEquals(new long[0], index.search("пилацир", 0, 10));
+    }
+
+    @Test
+    public void searchShortText() {
+        assertArrayEquals(new long[]{1, 2, 4}, index.search("Л", 0, 10));
+    }
+
+    @Test
+    public void searchReturnsRequestedPage() {
+        assertAll(
+                () -> assertArrayEquals(new long[]{1, 2}, index.search("р", 0, 2)),
+                () -> assertArrayEquals(new long[]{2}, index.search("отв", 0, Integer.MAX_VALUE)),
+                () -> assertArrayEquals(new long[]{2}, index.search("аккумуляторная", 1, 10))
+        );
+    }
+
+    @Test
+    public void removeItem() {
+        index.remove(1);
+
+        assertAll(
+                () -> assertArrayEquals(new long[]{2}, index.search("аккумуляторная", 0, 10)),
+                () -> assertEquals(2, index.size())
+        );
+    }
+}
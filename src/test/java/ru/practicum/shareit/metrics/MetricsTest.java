@@ -0,0 +1,86 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ErrorHandler;
+import ru.practicum.shareit.user.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@Transactional
+class MetricsTest {
+    private static final long UNKNOWN_USER_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void failedRequestIsCountedByServiceErrorAndSqlMetrics() throws Exception {
+        long serviceCalls = serviceCalls();
+        double notFound = notFoundErrors();
+        long requests = requestsToUser();
+        double selects = selects();
+
+        mvc.perform(get("/users/{id}", UNKNOWN_USER_ID))
+                .andExpect(status().isNotFound());
+
+        assertAll(
+                () -> assertEquals(serviceCalls + 1, serviceCalls(), "UserService.getUserById должен быть учтен"),
+                () -> assertEquals(notFound + 1, notFoundErrors(), "Ответ 404 должен быть учтен как not_found"),
+                () -> assertEquals(requests + 1, requestsToUser(), "HTTP-запрос должен быть учтен"),
+                () -> assertEquals(
+                        selects + 1, selects(), "Поиск пользователя должен быть учтен как один select"
+                )
+        );
+    }
+
+    private long serviceCalls() {
+        Timer timer = meterRegistry.find(MetricsConfiguration.SERVICE_TIMER)
+                .tag("class", UserService.class.getName())
+                .tag("method", "getUserById")
+                .tag("exception", "UserNotFoundException")
+                .timer();
+
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double notFoundErrors() {
+        Counter counter = meterRegistry.find(ErrorHandler.ERRORS_METRIC)
+                .tag("outcome", "not_found")
+                .tag("exception", "UserNotFoundException")
+                .counter();
+
+        return counter == null ? 0 : counter.count();
+    }
+
+    private long requestsToUser() {
+        DistributionSummary summary = meterRegistry.find(SqlStatementMetricsFilter.STATEMENTS_PER_REQUEST_METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/users/{id}")
+                .summary();
+
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double selects() {
+        return meterRegistry.counter(SqlStatementCounter.STATEMENTS_METRIC, "type", "select").count();
+    }
+}
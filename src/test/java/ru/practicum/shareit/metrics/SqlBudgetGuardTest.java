@@ -0,0 +1,72 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.metrics.exceptions.SqlBudgetExceededException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlBudgetGuardTest {
+    private SqlBudgetProperties properties;
+
+    private MeterRegistry meterRegistry;
+
+    private SqlBudgetGuard guard;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new SqlBudgetProperties();
+        properties.setRequestDefault(10);
+        properties.setRequests(Map.of("get", Map.of("/bookings", 2)));
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new SqlBudgetGuard(properties, meterRegistry);
+    }
+
+    @Test
+    public void requestWithinBudgetIsNotReported() {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+
+        assertDoesNotThrow(() -> guard.checkRequest("GET", "/bookings", 2));
+        assertDoesNotThrow(() -> guard.checkRequest("GET", "/items", 10));
+        assertNull(meterRegistry.find(SqlBudgetGuard.OVERRUN_METRIC).summary());
+    }
+
+    @Test
+    public void requestOverBudgetFailsInFailMode() {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+
+        assertThrows(SqlBudgetExceededException.class, () -> guard.checkRequest("GET", "/bookings", 7));
+        assertEquals(5, overrun("GET /bookings").max());
+    }
+
+    @Test
+    public void requestOverBudgetIsOnlyReportedInWarnMode() {
+        properties.setMode(SqlBudgetProperties.Mode.WARN);
+
+        assertDoesNotThrow(() -> guard.checkRequest("GET", "/items", 11));
+        assertEquals(1, overrun("GET /items").count());
+    }
+
+    @Test
+    public void nothingIsCheckedWhenGuardIsOff() {
+        properties.setMode(SqlBudgetProperties.Mode.OFF);
+
+        assertDoesNotThrow(() -> guard.checkRequest("GET", "/bookings", 100));
+        assertNull(meterRegistry.find(SqlBudgetGuard.OVERRUN_METRIC).summary());
+    }
+
+    private DistributionSummary overrun(String name) {
+        return meterRegistry.get(SqlBudgetGuard.OVERRUN_METRIC)
+                .tag("scope", "request")
+                .tag("name", name)
+                .summary();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.metrics.exceptions.SqlBudgetExceededException;
+
+import javax.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatementMetricsFilterTest {
+    private static final String BODY = "[{\"id\":1}]";
+
+    private SqlBudgetProperties properties;
+
+    private SqlStatementCounter counter;
+
+    private SqlStatementMetricsFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        properties = new SqlBudgetProperties();
+        properties.setRequests(Map.of("get", Map.of("/bookings", 1)));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        counter = new SqlStatementCounter(meterRegistry);
+        filter = new SqlStatementMetricsFilter(meterRegistry, new SqlBudgetGuard(properties, meterRegistry));
+    }
+
+    @Test
+    public void responseOverBudgetIsNotSentInFailMode() {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(
+                SqlBudgetExceededException.class,
+                () -> filter.doFilter(new MockHttpServletRequest("GET", "/bookings"), response, handler(2))
+        );
+        assertAll(
+                () -> assertFalse(response.isCommitted()),
+                () -> assertEquals("", response.getContentAsString())
+        );
+    }
+
+    @Test
+    public void responseWithinBudgetIsSentAfterCheckInFailMode() throws Exception {
+        properties.setMode(SqlBudgetProperties.Mode.FAIL);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings"), response, handler(1));
+
+        assertAll(
+                () -> assertTrue(response.isCommitted()),
+                () -> assertEquals(BODY, response.getContentAsString())
+        );
+    }
+
+    @Test
+    public void responseIsNotBufferedInWarnMode() throws Exception {
+        properties.setMode(SqlBudgetProperties.Mode.WARN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings"), response, (request, servletResponse) -> {
+            handler(2).doFilter(request, servletResponse);
+            assertTrue(servletResponse.isCommitted(), "WARN mode should write the response directly");
+        });
+
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    /**
+     * Обработчик GET /bookings, который выполняет selects запросов и сразу отправляет тело ответа
+     */
+    private FilterChain handler(int selects) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/bookings");
+
+            for (int i = 0; i < selects; i++) {
+                counter.inspect("select * from bookings");
+            }
+
+            response.setContentType("application/json");
+            response.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            response.flushBuffer();
+        };
+    }
+}
@@ -130,7 +130,7 @@ class RequestServiceImplTest {
         testEntityManager.persist(item3);
 
         List<ItemRequestWithResponsesDto> serviceResult =
-                requestService.getAllItemRequestsWithResponsesCurrentUser(requester.getId());
+                requestService.getAllItemRequestsWithResponsesCurrentUser(requester.getId(), 0, 100);
 
         assertAll(
                 () -> assertEquals(
@@ -175,6 +175,74 @@ class RequestServiceImplTest {
         );
     }
 
+    @Test
+    public void getAllItemRequestsWithResponsesCurrentUserByPages() {
+        User requester = Generators.USER_SUPPLIER.get();
+        Long requesterId = testEntityManager.persistAndGetId(requester, Long.class);
+
+        // Запрос другого пользователя не должен попадать ни на одну страницу
+        User otherRequester = Generators.USER_SUPPLIER.get();
+        Long otherRequesterId = testEntityManager.persistAndGetId(otherRequester, Long.class);
+        requestService.addItemRequest(new ItemRequestCreateDto("Description by other requester"), otherRequesterId);
+
+        ItemRequestDto itemRequestDto1 = requestService.addItemRequest(
+                new ItemRequestCreateDto("Description by first request"), requesterId
+        );
+        ItemRequestDto itemRequestDto2 = requestService.addItemRequest(
+                new ItemRequestCreateDto("Description by second request"), requesterId
+        );
+        ItemRequestDto itemRequestDto3 = requestService.addItemRequest(
+                new ItemRequestCreateDto("Description by third request"), requesterId
+        );
+
+        Item item = Generators.ITEM_SUPPLIER.get();
+        item.setRequest(testEntityManager.find(ItemRequest.class, itemRequestDto2.getId()));
+        testEntityManager.persist(item.getOwner());
+        testEntityManager.persist(item);
+
+        List<ItemRequestWithResponsesDto> firstPage =
+                requestService.getAllItemRequestsWithResponsesCurrentUser(requesterId, 0, 2);
+
+        assertAll(
+                "Проверка from=0, size=2",
+                () -> assertEquals(firstPage.size(), 2, "Количество элементов на странице должно быть 2"),
+                () -> assertEquals(
+                        firstPage.get(0).getId(),
+                        itemRequestDto3.getId(),
+                        String.format("Первый элемент должен быть %s", itemRequestDto3)
+                ),
+                () -> assertEquals(
+                        firstPage.get(1).getId(),
+                        itemRequestDto2.getId(),
+                        String.format("Второй элемент должен быть %s", itemRequestDto2)
+                ),
+                () -> assertEquals(
+                        firstPage.get(1).getResponses().size(), 1, "Должен быть один ответ для запроса"
+                )
+        );
+
+        List<ItemRequestWithResponsesDto> secondPage =
+                requestService.getAllItemRequestsWithResponsesCurrentUser(requesterId, 1, 2);
+
+        assertAll(
+                "Проверка from=1, size=2",
+                () -> assertEquals(secondPage.size(), 1, "На последней странице должен остаться один элемент"),
+                () -> assertEquals(
+                        secondPage.get(0).getId(),
+                        itemRequestDto1.getId(),
+                        String.format("Первый элемент должен быть %s", itemRequestDto1)
+                ),
+                () -> assertEquals(
+                        secondPage.get(0).getResponses().size(), 0, "Ответов на запрос не должно быть"
+                )
+        );
+
+        assertTrue(
+                requestService.getAllItemRequestsWithResponsesCurrentUser(requesterId, 2, 2).isEmpty(),
+                "Страница после последней должна быть пустой"
+        );
+    }
+
     @Test
     public void getAllItemRequests() {
         User requester = Generators.USER_SUPPLIER.get();
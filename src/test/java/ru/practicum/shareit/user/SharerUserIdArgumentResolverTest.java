@@ -0,0 +1,113 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.Generators;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.user.UserCacheConfiguration.USERS_CACHE;
+
+/**
+ * Пользователь из заголовка X-Sharer-User-Id находится один раз за запрос, а сервисы берут его из атрибутов запроса
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@AutoConfigureTestEntityManager
+@Transactional
+class SharerUserIdArgumentResolverTest {
+    private static final long UNKNOWN_USER_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    private boolean statisticsWereEnabled;
+
+    @BeforeEach
+    public void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsWereEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        cacheManager.getCache(USERS_CACHE).clear();
+    }
+
+    @AfterEach
+    public void restoreStatistics() {
+        statistics.setStatisticsEnabled(statisticsWereEnabled);
+    }
+
+    @Test
+    public void userIsResolvedOncePerRequest() throws Exception {
+        Item item = Generators.ITEM_SUPPLIER.get();
+        testEntityManager.persist(item.getOwner());
+        testEntityManager.persist(item);
+        User user = testEntityManager.persist(Generators.USER_SUPPLIER.get());
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+        long cacheRequests = usersCache().stats().requestCount();
+
+        mvc.perform(get("/items/{itemId}", item.getId())
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(SharerUserIdArgumentResolver.HEADER, user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(item.getId()));
+
+        assertAll(
+                () -> assertEquals(3, statistics.getPrepareStatementCount(), "user, item and comments expected"),
+                () -> assertEquals(1, statistics.getEntityStatistics(User.class.getName()).getLoadCount()),
+                () -> assertEquals(
+                        cacheRequests + 1, usersCache().stats().requestCount(),
+                        "ItemService should reuse the user from request attributes"
+                )
+        );
+    }
+
+    @Test
+    public void unknownUserIsRejectedBeforeController() throws Exception {
+        statistics.clear();
+
+        mvc.perform(get("/bookings")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(SharerUserIdArgumentResolver.HEADER, UNKNOWN_USER_ID))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, statistics.getPrepareStatementCount(), "only the user lookup expected");
+    }
+
+    private Cache<?, ?> usersCache() {
+        return (Cache<?, ?>) cacheManager.getCache(USERS_CACHE).getNativeCache();
+    }
+}
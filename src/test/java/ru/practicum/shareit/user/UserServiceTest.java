@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import ru.practicum.shareit.Generators;
 import ru.practicum.shareit.user.exceptions.UserNotFoundException;
 
@@ -21,6 +24,12 @@ class UserServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     public void createUserTest() {
         User user = Generators.USER_SUPPLIER.get();
@@ -102,6 +111,55 @@ class UserServiceTest {
         );
     }
 
+    @Test
+    public void userCacheEvictedOnUpdateAndDelete() {
+        User user = Generators.USER_SUPPLIER.get();
+        userService.addUser(user);
+        Cache cache = cacheManager.getCache(UserCacheConfiguration.USERS_CACHE);
+
+        assertNull(cache.get(user.getId()), "User is not cached before get");
+
+        userService.getUserById(user.getId());
+        assertNotNull(cache.get(user.getId()), "User is cached after get");
+
+        userService.updateUser(user.getId(), new User(null, "cachedName", null));
+        assertNull(cache.get(user.getId()), "User is evicted after update");
+        assertEquals("cachedName", userService.getUserById(user.getId()).getName());
+
+        userService.deleteUser(user.getId());
+        assertNull(cache.get(user.getId()), "User is evicted after delete");
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    public void cachedUserIsCopiedForEveryCall() {
+        User user = Generators.USER_SUPPLIER.get();
+        userService.addUser(user);
+        userService.getUserById(user.getId());
+
+        User first = userService.getUserById(user.getId());
+        first.setName("changedByCaller");
+        User second = userService.getUserById(user.getId());
+
+        assertNotSame(first, second, "Every cache hit returns its own user");
+        assertEquals(user.getName(), second.getName(), "Caller changes do not reach the cache");
+    }
+
+    @Test
+    public void userInsertedWithoutIdTakesIdFromSequence() {
+        User allocated = userService.addUser(Generators.USER_SUPPLIER.get());
+        User inserted = Generators.USER_SUPPLIER.get();
+
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES (?, ?)", inserted.getName(), inserted.getEmail());
+        Long insertedId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE email = ?", Long.class, inserted.getEmail()
+        );
+        User next = userService.addUser(Generators.USER_SUPPLIER.get());
+
+        assertTrue(insertedId > allocated.getId(), "Inserted user id is after the allocated block");
+        assertNotEquals(insertedId, next.getId(), "Allocated ids skip the inserted user id");
+    }
+
     @Test
     public void userDeleteTest() {
         User user = Generators.USER_SUPPLIER.get();